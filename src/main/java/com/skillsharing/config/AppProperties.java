@@ -13,6 +13,12 @@ import java.util.List;
 public class AppProperties {
     private final Auth auth = new Auth();
     private final OAuth2 oauth2 = new OAuth2();
+    private final Feed feed = new Feed();
+    private final Notification notification = new Notification();
+    private final Engagement engagement = new Engagement();
+    private final Trending trending = new Trending();
+    private final Search search = new Search();
+    private final Graph graph = new Graph();
 
     @Getter
     @Setter
@@ -27,6 +33,132 @@ public class AppProperties {
         private List<String> authorizedRedirectUris = new ArrayList<>();
     }
 
+    @Getter
+    @Setter
+    public static class Feed {
+        // Authors with at least this many followers are pulled at read time instead of fanned out
+        private long celebrityFollowerThreshold = 10000;
+        // Newest post ids kept per user by the in-memory recent-feed cache
+        private int cacheEntryCapacity = 50;
+        // Upper bound on the estimated heap used by the recent-feed cache
+        private long cacheMaxBytes = 64L * 1024 * 1024;
+        // Ranked feed: engagement loses half its weight every rankingHalfLifeHours
+        private double rankingHalfLifeHours = 24;
+        private double rankingLikeWeight = 1.0;
+        private double rankingCommentWeight = 3.0;
+        // Newest feed posts considered when building a ranked page
+        private int rankingCandidateWindow = 50;
+        // Soft cap on posts with tracked engagement scores
+        private int rankingMaxTrackedPosts = 100000;
+        // At startup scores are restored for posts created in the last rankingSeedDays
+        private int rankingSeedDays = 7;
+        // Login warm-up executor; warm-ups beyond the queue are dropped
+        private int warmupThreads = 2;
+        private int warmupQueueCapacity = 100;
+        // Executor for async MVC responses such as the streamed feed export;
+        // requests beyond the queue are rejected
+        private int streamThreads = 8;
+        private int streamQueueCapacity = 50;
+        // A user may rebuild their feed at most once per rebuildCooldownMs
+        private long rebuildCooldownMs = 3600000;
+    }
+
+    @Getter
+    @Setter
+    public static class Notification {
+        // Users whose unread notification count is kept in memory
+        private int unreadCountCacheSize = 10000;
+    }
+
+    @Getter
+    @Setter
+    public static class Engagement {
+        // How often buffered like/comment count deltas are written to the posts table
+        private long flushIntervalMs = 1000;
+        // Load every user's liked post ids into memory at startup instead of on first use
+        private boolean likedIndexPreload = true;
+        // Like/unlike requests are coalesced per (post, user) and written in
+        // batches this often, in this many post-id partitions
+        private long likeFlushIntervalMs = 200;
+        private int likePartitions = 8;
+        // A partition holding this many requests is flushed right away
+        private int likePartitionCapacity = 10000;
+        // Recompute stored like/comment counts at startup, for deltas lost in a crash
+        private boolean reconcileOnStartup = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Trending {
+        // Likes and comments lose half their trending weight every halfLifeHours
+        private double halfLifeHours = 6;
+        private double likeWeight = 1.0;
+        private double commentWeight = 3.0;
+        // Posts kept on the leaderboard; the least trending are evicted first
+        private int maxTrackedPosts = 10000;
+        // At startup the leaderboard is rebuilt from posts created in the last seedDays
+        private int seedDays = 7;
+        // "Hot right now": weighted activity over the last hotWindowMinutes, in hotBuckets time buckets
+        private int hotWindowMinutes = 60;
+        private int hotBuckets = 12;
+        // Count-min sketch per bucket; memory is buckets x depth x width longs
+        private int hotSketchDepth = 4;
+        private int hotSketchWidth = 2048;
+        // Space-Saving candidates per bucket are split into stripes to spread lock contention
+        private int hotStripes = 8;
+        private int hotCandidatesPerStripe = 32;
+        private double hotViewWeight = 1.0;
+        private double hotLikeWeight = 3.0;
+        private double hotCommentWeight = 5.0;
+        // Most-discussed rankings are recomputed this often and keep this many posts per window and type
+        private long mostDiscussedRefreshMs = 300000;
+        private int mostDiscussedMaxRanked = 1000;
+        // Threads of the fork/join pool used by background ranking jobs
+        private int rankingParallelism = 2;
+    }
+
+    @Getter
+    @Setter
+    public static class Search {
+        // BM25 term frequency saturation and document length normalization
+        private double bm25K1 = 1.2;
+        private double bm25B = 0.75;
+        // Plan title and topic terms count this many times as much as description terms
+        private double titleBoost = 2.0;
+        private double authorBoost = 1.0;
+        // Most suggestions a user typeahead query returns
+        private int typeaheadMaxResults = 10;
+        // bm25 for ranked word search over posts, trigram for substring search
+        private String postBackend = "bm25";
+        // Most users a user search returns
+        private int userSearchMaxResults = 50;
+        // Most topic and author values a search returns counts for
+        private int facetMaxValues = 20;
+        // Search results are cached this long, or until a post or user change
+        private long cacheTtlSeconds = 60;
+        private int cacheMaxEntries = 2000;
+    }
+
+    @Getter
+    @Setter
+    public static class Graph {
+        // Follow edits kept in the overlay before they are compacted into the arrays
+        private int compactionThreshold = 10000;
+        private long compactionIntervalMs = 60000;
+        // "People you may know": suggestions kept per user, rebuilt for everyone every
+        // suggestionRefreshMs and for users whose follows changed every suggestionStaleRefreshMs
+        private int suggestionsPerUser = 20;
+        private long suggestionRefreshMs = 3600000;
+        private long suggestionStaleRefreshMs = 5000;
+        // Score = mutual follows x mutualWeight + shared topics x topicWeight + co-liked posts x coLikeWeight
+        private double suggestionMutualWeight = 1.0;
+        private double suggestionTopicWeight = 0.5;
+        private double suggestionCoLikeWeight = 0.25;
+        // Followed accounts, topics and posts reaching more users than this say little
+        // about a user and are skipped when gathering candidates
+        private int suggestionMaxFanout = 1000;
+    }
+
     public Auth getAuth() {
         return auth;
     }
@@ -34,4 +166,28 @@ public class AppProperties {
     public OAuth2 getOauth2() {
         return oauth2;
     }
+
+    public Feed getFeed() {
+        return feed;
+    }
+
+    public Notification getNotification() {
+        return notification;
+    }
+
+    public Engagement getEngagement() {
+        return engagement;
+    }
+
+    public Trending getTrending() {
+        return trending;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
 }
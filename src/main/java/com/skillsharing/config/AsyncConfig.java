@@ -0,0 +1,50 @@
+package com.skillsharing.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    public static final String FEED_WARMUP_EXECUTOR = "feedWarmupExecutor";
+    public static final String RANKING_POOL = "rankingPool";
+    public static final String MVC_ASYNC_EXECUTOR = "mvcAsyncExecutor";
+
+    // Bounded pool for best-effort work that must never slow down or fail a
+    // request: when the queue is full new tasks are silently dropped
+    @Bean(name = FEED_WARMUP_EXECUTOR)
+    public ThreadPoolTaskExecutor feedWarmupExecutor(AppProperties appProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(appProperties.getFeed().getWarmupThreads());
+        executor.setMaxPoolSize(appProperties.getFeed().getWarmupThreads());
+        executor.setQueueCapacity(appProperties.getFeed().getWarmupQueueCapacity());
+        executor.setThreadNamePrefix("feed-warmup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    // Runs async MVC responses. Declaring executors here stops Spring Boot
+    // from creating its applicationTaskExecutor, and without this MVC would
+    // fall back to a thread per request; WebConfig registers it instead.
+    @Bean(name = MVC_ASYNC_EXECUTOR)
+    public ThreadPoolTaskExecutor mvcAsyncExecutor(AppProperties appProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(appProperties.getFeed().getStreamThreads());
+        executor.setMaxPoolSize(appProperties.getFeed().getStreamThreads());
+        executor.setQueueCapacity(appProperties.getFeed().getStreamQueueCapacity());
+        executor.setThreadNamePrefix("mvc-async-");
+        return executor;
+    }
+
+    // Fork/join pool for background ranking jobs, kept apart from the common
+    // pool so parallel streams elsewhere are not starved while a job runs
+    @Bean(name = RANKING_POOL, destroyMethod = "shutdown")
+    public ForkJoinPool rankingPool(AppProperties appProperties) {
+        return new ForkJoinPool(appProperties.getTrending().getRankingParallelism());
+    }
+}
@@ -1,8 +1,10 @@
 package com.skillsharing.config;
 
+import com.skillsharing.event.UserChangedEvent;
 import com.skillsharing.model.User;
 import com.skillsharing.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
@@ -11,6 +13,7 @@ import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -18,6 +21,7 @@ import java.util.Optional;
 public class CustomOAuth2UserService extends DefaultOAuth2UserService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public OAuth2User loadUser(OAuth2UserRequest oAuth2UserRequest) throws OAuth2AuthenticationException {
@@ -71,14 +75,24 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
         user.setEmail(oAuth2UserInfo.getEmail());
         user.setProfilePicture(oAuth2UserInfo.getImageUrl());
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser));
+        return savedUser;
     }
 
     private User updateExistingUser(User existingUser, OAuth2UserInfo oAuth2UserInfo) {
+        boolean renamed = !Objects.equals(existingUser.getName(), oAuth2UserInfo.getName());
+        boolean changed = renamed
+            || !Objects.equals(existingUser.getProfilePicture(), oAuth2UserInfo.getImageUrl());
         existingUser.setName(oAuth2UserInfo.getName());
         existingUser.setProfilePicture(oAuth2UserInfo.getImageUrl());
         
-        return userRepository.save(existingUser);
+        User savedUser = userRepository.save(existingUser);
+        // Most logins change nothing; don't make the search caches drop their entries for those
+        if (changed) {
+            eventPublisher.publishEvent(new UserChangedEvent(savedUser, renamed));
+        }
+        return savedUser;
     }
 }
 
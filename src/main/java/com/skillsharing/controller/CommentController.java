@@ -1,5 +1,7 @@
 package com.skillsharing.controller;
 
+import com.skillsharing.dto.CursorPage;
+import com.skillsharing.dto.KeysetCursor;
 import com.skillsharing.model.Comment;
 import com.skillsharing.security.CurrentUser;
 import com.skillsharing.security.UserPrincipal;
@@ -38,6 +40,16 @@ public class CommentController {
         return ResponseEntity.ok(comments);
     }
 
+    @GetMapping("/posts/{postId}/comments/scroll")
+    public ResponseEntity<CursorPage<Comment>> scrollPostComments(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<Comment> comments = commentService.scrollPostComments(
+            postId, KeysetCursor.decode(cursor), CursorPage.clampSize(size));
+        return ResponseEntity.ok(comments);
+    }
+
     @GetMapping("/users/{userId}/comments")
     public ResponseEntity<Page<Comment>> getUserComments(
             @PathVariable Long userId,
@@ -1,17 +1,29 @@
 package com.skillsharing.controller;
 
+import com.skillsharing.dto.CursorPage;
+import com.skillsharing.dto.FacetedPage;
+import com.skillsharing.dto.KeysetCursor;
+import com.skillsharing.dto.LikeStatus;
+import com.skillsharing.dto.PostEngagement;
+import com.skillsharing.dto.PostSearchFilter;
 import com.skillsharing.model.Post;
 import com.skillsharing.security.CurrentUser;
 import com.skillsharing.security.UserPrincipal;
+import com.skillsharing.service.FeedStreamService;
+import com.skillsharing.service.MostDiscussedService;
 import com.skillsharing.service.PostService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -20,6 +32,7 @@ import java.util.List;
 public class PostController {
 
     private final PostService postService;
+    private final FeedStreamService feedStreamService;
 
     @PostMapping
     @PreAuthorize("hasRole('USER')")
@@ -32,7 +45,7 @@ public class PostController {
 
     @GetMapping("/{id}")
     public ResponseEntity<Post> getPost(@PathVariable Long id) {
-        Post post = postService.getPostById(id);
+        Post post = postService.viewPost(id);
         return ResponseEntity.ok(post);
     }
 
@@ -57,20 +70,20 @@ public class PostController {
 
     @PostMapping("/{id}/like")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<?> likePost(
+    public ResponseEntity<LikeStatus> likePost(
             @CurrentUser UserPrincipal currentUser,
             @PathVariable Long id) {
-        postService.likePost(id, currentUser.getId());
-        return ResponseEntity.ok().build();
+        LikeStatus status = postService.likePost(id, currentUser.getId());
+        return ResponseEntity.ok(status);
     }
 
     @PostMapping("/{id}/unlike")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<?> unlikePost(
+    public ResponseEntity<LikeStatus> unlikePost(
             @CurrentUser UserPrincipal currentUser,
             @PathVariable Long id) {
-        postService.unlikePost(id, currentUser.getId());
-        return ResponseEntity.ok().build();
+        LikeStatus status = postService.unlikePost(id, currentUser.getId());
+        return ResponseEntity.ok(status);
     }
 
     @GetMapping("/user/{userId}")
@@ -81,6 +94,16 @@ public class PostController {
         return ResponseEntity.ok(posts);
     }
 
+    @GetMapping("/user/{userId}/scroll")
+    public ResponseEntity<CursorPage<Post>> scrollUserPosts(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<Post> posts = postService.scrollUserPosts(
+            userId, KeysetCursor.decode(cursor), CursorPage.clampSize(size));
+        return ResponseEntity.ok(posts);
+    }
+
     @GetMapping("/feed")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Page<Post>> getFeed(
@@ -90,11 +113,70 @@ public class PostController {
         return ResponseEntity.ok(posts);
     }
 
+    @GetMapping("/feed/scroll")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<CursorPage<Post>> scrollFeed(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<Post> posts = postService.scrollFollowingPosts(
+            currentUser.getId(), KeysetCursor.decode(cursor), CursorPage.clampSize(size));
+        return ResponseEntity.ok(posts);
+    }
+
+    // Streams the feed as NDJSON, or as server-sent events when the client
+    // asks for text/event-stream. An EventSource reconnect resumes from the
+    // Last-Event-ID header, which carries the last post's cursor.
+    @GetMapping(value = "/feed/stream", produces = {"application/x-ndjson", MediaType.TEXT_EVENT_STREAM_VALUE})
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<StreamingResponseBody> streamFeed(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Long userId = currentUser.getId();
+        KeysetCursor from = KeysetCursor.decode(cursor != null ? cursor : lastEventId);
+        int max = Math.max(1, Math.min(limit, FeedStreamService.MAX_LIMIT));
+        boolean sse = accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+
+        FeedStreamService.Format format = sse ? FeedStreamService.Format.SSE : FeedStreamService.Format.NDJSON;
+        StreamingResponseBody body = out -> feedStreamService.streamFeed(userId, from, max, format, out);
+        return ResponseEntity.ok()
+            .contentType(sse ? MediaType.TEXT_EVENT_STREAM : MediaType.parseMediaType("application/x-ndjson"))
+            .body(body);
+    }
+
+    @GetMapping("/feed/ranked")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<Post>> getRankedFeed(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(defaultValue = "20") int size) {
+        List<Post> posts = postService.getRankedFollowingPosts(currentUser.getId(), CursorPage.clampSize(size));
+        return ResponseEntity.ok(posts);
+    }
+
+    @PostMapping("/feed/rebuild")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Integer> rebuildFeed(@CurrentUser UserPrincipal currentUser) {
+        int entries = postService.rebuildFeed(currentUser.getId());
+        return ResponseEntity.ok(entries);
+    }
+
+    // Filters combine across facets; repeated topic values match any of them.
+    // from and to are inclusive months such as 2024-05. Without a keyword the
+    // filtered posts are listed newest first.
     @GetMapping("/search")
-    public ResponseEntity<Page<Post>> searchPosts(
-            @RequestParam String keyword,
+    public ResponseEntity<FacetedPage<Post>> searchPosts(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Post.PostType type,
+            @RequestParam(required = false) List<String> topic,
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to,
             Pageable pageable) {
-        Page<Post> posts = postService.searchPosts(keyword, pageable);
+        PostSearchFilter filter = new PostSearchFilter(type, topic, authorId, from, to);
+        FacetedPage<Post> posts = postService.searchPosts(keyword, filter, pageable);
         return ResponseEntity.ok(posts);
     }
 
@@ -106,16 +188,38 @@ public class PostController {
 
     @GetMapping("/trending")
     public ResponseEntity<Page<Post>> getTrendingPosts(Pageable pageable) {
-        Page<Post> posts = postService.getMostLikedPosts(pageable);
+        Page<Post> posts = postService.getTrendingPosts(pageable);
         return ResponseEntity.ok(posts);
     }
 
+    // window is DAY, WEEK or ALL_TIME; type narrows the ranking to one post type
     @GetMapping("/most-discussed")
-    public ResponseEntity<Page<Post>> getMostDiscussedPosts(Pageable pageable) {
-        Page<Post> posts = postService.getMostCommentedPosts(pageable);
+    public ResponseEntity<Page<Post>> getMostDiscussedPosts(
+            @RequestParam(defaultValue = "ALL_TIME") MostDiscussedService.Window window,
+            @RequestParam(required = false) Post.PostType type,
+            Pageable pageable) {
+        Page<Post> posts = postService.getMostCommentedPosts(window, type, pageable);
+        return ResponseEntity.ok(posts);
+    }
+
+    // Most viewed, liked and commented posts of the last hour
+    @GetMapping("/hot")
+    public ResponseEntity<List<Post>> getHotPosts(@RequestParam(defaultValue = "20") int size) {
+        List<Post> posts = postService.getHotPosts(CursorPage.clampSize(size));
         return ResponseEntity.ok(posts);
     }
 
+    // Counts and has-liked flags for every post on screen in one call,
+    // e.g. GET /api/posts/engagement?ids=1,2,3
+    @GetMapping("/engagement")
+    public ResponseEntity<List<PostEngagement>> getEngagement(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam List<Long> ids) {
+        Long userId = currentUser != null ? currentUser.getId() : null;
+        List<PostEngagement> engagement = postService.getEngagement(ids, userId);
+        return ResponseEntity.ok(engagement);
+    }
+
     @GetMapping("/{id}/likes-count")
     public ResponseEntity<Long> getLikesCount(@PathVariable Long id) {
         Long likesCount = postService.getLikesCount(id);
@@ -1,5 +1,9 @@
 package com.skillsharing.controller;
 
+import com.skillsharing.dto.CursorPage;
+import com.skillsharing.dto.FollowResult;
+import com.skillsharing.dto.IdCursor;
+import com.skillsharing.dto.UserCard;
 import com.skillsharing.model.User;
 import com.skillsharing.security.CurrentUser;
 import com.skillsharing.security.UserPrincipal;
@@ -10,6 +14,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/users")
@@ -42,20 +47,20 @@ public class UserController {
 
     @PostMapping("/{id}/follow")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<?> followUser(
+    public ResponseEntity<FollowResult> followUser(
             @CurrentUser UserPrincipal userPrincipal,
             @PathVariable Long id) {
-        userService.followUser(userPrincipal.getId(), id);
-        return ResponseEntity.ok().build();
+        FollowResult result = userService.followUser(userPrincipal.getId(), id);
+        return ResponseEntity.ok(result);
     }
 
     @PostMapping("/{id}/unfollow")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<?> unfollowUser(
+    public ResponseEntity<FollowResult> unfollowUser(
             @CurrentUser UserPrincipal userPrincipal,
             @PathVariable Long id) {
-        userService.unfollowUser(userPrincipal.getId(), id);
-        return ResponseEntity.ok().build();
+        FollowResult result = userService.unfollowUser(userPrincipal.getId(), id);
+        return ResponseEntity.ok(result);
     }
 
     @GetMapping("/{id}/followers")
@@ -70,12 +75,61 @@ public class UserController {
         return ResponseEntity.ok(following);
     }
 
+    // Paged variants of the two lists above, e.g. GET /api/users/7/followers/scroll?size=50
+    @GetMapping("/{id}/followers/scroll")
+    public ResponseEntity<CursorPage<UserCard>> scrollUserFollowers(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<UserCard> followers = userService.scrollFollowers(
+            id, IdCursor.decode(cursor), CursorPage.clampSize(size));
+        return ResponseEntity.ok(followers);
+    }
+
+    @GetMapping("/{id}/following/scroll")
+    public ResponseEntity<CursorPage<UserCard>> scrollUserFollowing(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<UserCard> following = userService.scrollFollowing(
+            id, IdCursor.decode(cursor), CursorPage.clampSize(size));
+        return ResponseEntity.ok(following);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<User>> searchUsers(@RequestParam String keyword) {
         List<User> users = userService.searchUsers(keyword);
         return ResponseEntity.ok(users);
     }
 
+    // Suggestions while typing, e.g. GET /api/users/typeahead?q=jo%20sm
+    @GetMapping("/typeahead")
+    public ResponseEntity<List<UserCard>> typeahead(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<UserCard> users = userService.suggestUsers(q, limit);
+        return ResponseEntity.ok(users);
+    }
+
+    @GetMapping("/me/suggestions")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<UserCard>> getFollowSuggestions(
+            @CurrentUser UserPrincipal userPrincipal,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<UserCard> users = userService.suggestFollows(userPrincipal.getId(), Math.max(1, limit));
+        return ResponseEntity.ok(users);
+    }
+
+    // Ids among the given users that the caller follows, e.g. GET /api/users/is-following?ids=1,2,3
+    @GetMapping("/is-following")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Set<Long>> checkIfFollowingAny(
+            @CurrentUser UserPrincipal userPrincipal,
+            @RequestParam List<Long> ids) {
+        Set<Long> followed = userService.followedAmong(userPrincipal.getId(), ids);
+        return ResponseEntity.ok(followed);
+    }
+
     @GetMapping("/{id}/is-following")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Boolean> checkIfFollowing(
@@ -0,0 +1,26 @@
+package com.skillsharing.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One page of a keyset-paginated list. There is deliberately no total count:
+// nextCursor is null once the end of the list has been reached.
+public record CursorPage<T>(List<T> content, String nextCursor, boolean hasNext) {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    // Build a page from a query that fetched size + 1 rows; the extra row only
+    // signals that another page exists and is not returned.
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null, false);
+        }
+        List<T> content = rows.subList(0, size);
+        return new CursorPage<>(content, cursorOf.apply(content.get(size - 1)), true);
+    }
+}
@@ -0,0 +1,22 @@
+package com.skillsharing.dto;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+// A page of search results plus facet counts over every match. Serialized
+// like any other page with an extra "facets" field.
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private final PostFacets facets;
+
+    public FacetedPage(List<T> content, Pageable pageable, long total, PostFacets facets) {
+        super(content, pageable, total);
+        this.facets = facets;
+    }
+
+    public PostFacets getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,6 @@
+package com.skillsharing.dto;
+
+// Follow state after a follow or unfollow: whether the caller now follows
+// userId, userId's follower count and the caller's following count
+public record FollowResult(Long userId, boolean following, long followerCount, long followingCount) {
+}
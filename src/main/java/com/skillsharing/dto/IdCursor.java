@@ -0,0 +1,30 @@
+package com.skillsharing.dto;
+
+import com.skillsharing.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Position in an id DESC ordered list, such as a user's followers. Like
+// KeysetCursor, clients only see the opaque encoded form.
+public record IdCursor(long id) {
+
+    // Sorts after every real id, so "before START" reads from the highest id
+    public static final IdCursor START = new IdCursor(Long.MAX_VALUE);
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // A missing cursor means the first page
+    public static IdCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            return new IdCursor(Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor: " + cursor, ex);
+        }
+    }
+}
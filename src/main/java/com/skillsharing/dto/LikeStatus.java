@@ -0,0 +1,5 @@
+package com.skillsharing.dto;
+
+// Like state the caller asked for; it is persisted shortly after the response
+public record LikeStatus(Long postId, boolean liked) {
+}
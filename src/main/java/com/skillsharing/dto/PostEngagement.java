@@ -0,0 +1,5 @@
+package com.skillsharing.dto;
+
+// Like/comment counts of one post, plus whether the calling user liked it
+public record PostEngagement(Long postId, long likeCount, long commentCount, boolean likedByCurrentUser) {
+}
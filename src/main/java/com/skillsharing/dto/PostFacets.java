@@ -0,0 +1,16 @@
+package com.skillsharing.dto;
+
+import com.skillsharing.model.Post;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+// Number of matching posts per facet value. Topics and authors (by user id)
+// keep only their most frequent values; months are in calendar order.
+public record PostFacets(Map<Post.PostType, Long> types,
+                         Map<String, Long> topics,
+                         Map<Long, Long> authors,
+                         Map<YearMonth, Long> months) {
+
+    public static final PostFacets EMPTY = new PostFacets(Map.of(), Map.of(), Map.of(), Map.of());
+}
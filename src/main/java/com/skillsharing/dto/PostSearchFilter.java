@@ -0,0 +1,17 @@
+package com.skillsharing.dto;
+
+import com.skillsharing.model.Post;
+
+import java.time.YearMonth;
+import java.util.List;
+
+// Facet filters for post search. Null or empty fields do not filter; several
+// topics match posts having any of them; from and to are inclusive months.
+public record PostSearchFilter(Post.PostType type, List<String> topics, Long authorId, YearMonth from, YearMonth to) {
+
+    public static final PostSearchFilter NONE = new PostSearchFilter(null, null, null, null, null);
+
+    public boolean isEmpty() {
+        return type == null && (topics == null || topics.isEmpty()) && authorId == null && from == null && to == null;
+    }
+}
@@ -0,0 +1,5 @@
+package com.skillsharing.dto;
+
+// Lightweight user summary for typeahead and lists: no follower sets or posts
+public record UserCard(Long id, String name, String profilePicture, long followerCount) {
+}
@@ -0,0 +1,13 @@
+package com.skillsharing.event;
+
+import com.skillsharing.model.Post;
+
+// Published inside the transaction that created, updated or deleted a post
+public record PostChangedEvent(Post post, Type type) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
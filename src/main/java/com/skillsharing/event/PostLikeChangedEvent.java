@@ -0,0 +1,10 @@
+package com.skillsharing.event;
+
+import com.skillsharing.model.Post;
+import com.skillsharing.model.User;
+
+// Published inside the transaction that added or removed a post_likes row,
+// once per row that actually changed. Listeners that only update memory
+// listen after commit.
+public record PostLikeChangedEvent(Post post, User user, boolean liked) {
+}
@@ -0,0 +1,12 @@
+package com.skillsharing.event;
+
+import com.skillsharing.model.User;
+
+// Published when a user is created or their profile (name, picture) changes.
+// renamed is set when the name changed; it is also indexed with their posts.
+public record UserChangedEvent(User user, boolean renamed) {
+
+    public UserChangedEvent(User user) {
+        this(user, false);
+    }
+}
@@ -10,7 +10,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+    @Index(name = "idx_comments_post_created", columnList = "post_id, createdAt, id")
+})
 @Data
 @NoArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
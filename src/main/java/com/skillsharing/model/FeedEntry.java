@@ -0,0 +1,46 @@
+package com.skillsharing.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One row per (recipient, post) in a user's materialized home feed.
+// Rows are written when a post is created (fan-out on write) so that reading
+// the feed is a range scan on (recipient_id, post_created_at, post_id).
+@Entity
+@Table(
+    name = "feed_entries",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_feed_recipient_post",
+        columnNames = {"recipient_id", "post_id"}
+    ),
+    indexes = {
+        @Index(name = "idx_feed_recipient_created", columnList = "recipient_id, post_created_at, post_id"),
+        @Index(name = "idx_feed_recipient_author", columnList = "recipient_id, author_id"),
+        @Index(name = "idx_feed_post", columnList = "post_id")
+    }
+)
+@Data
+@NoArgsConstructor
+public class FeedEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", nullable = false)
+    private Post post;
+
+    // Denormalized so unfollow can drop an author's entries without joining posts
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    // Copy of the post's createdAt so the feed can be ordered from this table alone
+    @Column(name = "post_created_at", nullable = false)
+    private LocalDateTime postCreatedAt;
+}
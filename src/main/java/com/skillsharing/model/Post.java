@@ -3,6 +3,7 @@ package com.skillsharing.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,7 +15,9 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    @Index(name = "idx_posts_user_created", columnList = "user_id, createdAt, id")
+})
 @Data
 @NoArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
@@ -46,6 +49,16 @@ public class Post {
     )
     private Set<User> likes = new HashSet<>();
 
+    // Denormalized engagement counters, maintained by EngagementCounterService.
+    // Never written through the entity, so saving a stale Post cannot overwrite them.
+    @ColumnDefault("0")
+    @Column(name = "like_count", nullable = false, insertable = false, updatable = false)
+    private long likeCount;
+
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, insertable = false, updatable = false)
+    private long commentCount;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private PostType postType;
@@ -3,6 +3,7 @@ package com.skillsharing.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -32,17 +33,31 @@ public class User {
     @Column(length = 1000)
     private String bio;
 
+    // Written only by UserService's follow/unfollow statements. As a set, the
+    // table's primary key is (following_id, follower_id); the index serves
+    // the following list, which seeks by follower_id.
     @ManyToMany
     @JoinTable(
         name = "user_followers",
         joinColumns = @JoinColumn(name = "following_id"),
-        inverseJoinColumns = @JoinColumn(name = "follower_id")
+        inverseJoinColumns = @JoinColumn(name = "follower_id"),
+        indexes = @Index(name = "idx_user_followers_follower", columnList = "follower_id, following_id")
     )
     private Set<User> followers = new HashSet<>();
 
     @ManyToMany(mappedBy = "followers")
     private Set<User> following = new HashSet<>();
 
+    // Maintained by the follow/unfollow statements alongside user_followers,
+    // never written through the entity
+    @ColumnDefault("0")
+    @Column(name = "follower_count", nullable = false, insertable = false, updatable = false)
+    private long followerCount;
+
+    @ColumnDefault("0")
+    @Column(name = "following_count", nullable = false, insertable = false, updatable = false)
+    private long followingCount;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     private Set<Post> posts = new HashSet<>();
 
@@ -6,14 +6,28 @@ import com.skillsharing.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     
     // Find comments by post
     Page<Comment> findByPostOrderByCreatedAtDesc(Post post, Pageable pageable);
     
+    // Seek past a (createdAt, id) cursor instead of using OFFSET
+    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND " +
+           "(c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findByPostIdBefore(@Param("postId") Long postId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+    
     // Find comments by user
     Page<Comment> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
     
@@ -0,0 +1,134 @@
+package com.skillsharing.repository;
+
+import com.skillsharing.model.FeedEntry;
+import com.skillsharing.model.Post;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FeedEntryRepository extends JpaRepository<FeedEntry, Long> {
+
+    // Read a page of the materialized feed for a user
+    @Query(value = "SELECT e.post FROM FeedEntry e WHERE e.recipientId = :recipientId " +
+                   "ORDER BY e.postCreatedAt DESC, e.post.id DESC",
+           countQuery = "SELECT COUNT(e) FROM FeedEntry e WHERE e.recipientId = :recipientId")
+    Page<Post> findFeedPosts(@Param("recipientId") Long recipientId, Pageable pageable);
+
+    // Head of the pushed feed, leaving out authors that are pulled at read time
+    @Query("SELECT e.post FROM FeedEntry e WHERE e.recipientId = :recipientId " +
+           "AND e.authorId NOT IN :excludedAuthorIds ORDER BY e.postCreatedAt DESC, e.post.id DESC")
+    List<Post> findFeedPostsExcludingAuthors(@Param("recipientId") Long recipientId,
+                                             @Param("excludedAuthorIds") Collection<Long> excludedAuthorIds,
+                                             Pageable pageable);
+
+    @Query("SELECT COUNT(e) FROM FeedEntry e WHERE e.recipientId = :recipientId " +
+           "AND e.authorId NOT IN :excludedAuthorIds")
+    long countFeedEntriesExcludingAuthors(@Param("recipientId") Long recipientId,
+                                          @Param("excludedAuthorIds") Collection<Long> excludedAuthorIds);
+
+    // Seek variants of the two reads above, continuing after a (createdAt, id) cursor
+    @Query("SELECT e.post FROM FeedEntry e WHERE e.recipientId = :recipientId AND " +
+           "(e.postCreatedAt < :createdAt OR (e.postCreatedAt = :createdAt AND e.post.id < :postId)) " +
+           "ORDER BY e.postCreatedAt DESC, e.post.id DESC")
+    List<Post> findFeedPostsBefore(@Param("recipientId") Long recipientId,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("postId") Long postId,
+                                   Pageable pageable);
+
+    @Query("SELECT e.post FROM FeedEntry e WHERE e.recipientId = :recipientId " +
+           "AND e.authorId NOT IN :excludedAuthorIds AND " +
+           "(e.postCreatedAt < :createdAt OR (e.postCreatedAt = :createdAt AND e.post.id < :postId)) " +
+           "ORDER BY e.postCreatedAt DESC, e.post.id DESC")
+    List<Post> findFeedPostsExcludingAuthorsBefore(@Param("recipientId") Long recipientId,
+                                                   @Param("excludedAuthorIds") Collection<Long> excludedAuthorIds,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("postId") Long postId,
+                                                   Pageable pageable);
+
+    // Write one feed entry per follower of the author in a single statement
+    @Modifying
+    @Query(value = "INSERT INTO feed_entries (recipient_id, post_id, author_id, post_created_at) " +
+                   "SELECT uf.follower_id, :postId, :authorId, :createdAt FROM user_followers uf " +
+                   "WHERE uf.following_id = :authorId",
+           nativeQuery = true)
+    int fanOutToFollowers(@Param("postId") Long postId,
+                          @Param("authorId") Long authorId,
+                          @Param("createdAt") LocalDateTime createdAt);
+
+    // Copy an author's existing posts into a recipient's feed (used after a follow)
+    @Modifying
+    @Query(value = "INSERT INTO feed_entries (recipient_id, post_id, author_id, post_created_at) " +
+                   "SELECT :recipientId, p.id, p.user_id, p.created_at FROM posts p " +
+                   "WHERE p.user_id = :authorId AND NOT EXISTS " +
+                   "(SELECT 1 FROM feed_entries e WHERE e.recipient_id = :recipientId AND e.post_id = p.id)",
+           nativeQuery = true)
+    int backfillFromAuthor(@Param("recipientId") Long recipientId, @Param("authorId") Long authorId);
+
+    // Copy an author's posts into every follower's feed (used when the author
+    // drops below the celebrity threshold and is no longer pulled at read time)
+    @Modifying
+    @Query(value = "INSERT INTO feed_entries (recipient_id, post_id, author_id, post_created_at) " +
+                   "SELECT uf.follower_id, p.id, p.user_id, p.created_at FROM posts p " +
+                   "JOIN user_followers uf ON uf.following_id = p.user_id " +
+                   "WHERE p.user_id = :authorId AND NOT EXISTS " +
+                   "(SELECT 1 FROM feed_entries e WHERE e.recipient_id = uf.follower_id AND e.post_id = p.id)",
+           nativeQuery = true)
+    int backfillAuthorToFollowers(@Param("authorId") Long authorId);
+
+    // Copy the posts of every pushed author the recipient follows into their
+    // feed. Authors with at least pulledThreshold followers are read on pull.
+    @Modifying
+    @Query(value = "INSERT INTO feed_entries (recipient_id, post_id, author_id, post_created_at) " +
+                   "SELECT :recipientId, p.id, p.user_id, p.created_at FROM posts p " +
+                   "JOIN user_followers uf ON uf.following_id = p.user_id " +
+                   "JOIN users a ON a.id = p.user_id " +
+                   "WHERE uf.follower_id = :recipientId AND a.follower_count < :pulledThreshold AND NOT EXISTS " +
+                   "(SELECT 1 FROM feed_entries e WHERE e.recipient_id = :recipientId AND e.post_id = p.id)",
+           nativeQuery = true)
+    int backfillFromFollowing(@Param("recipientId") Long recipientId, @Param("pulledThreshold") long pulledThreshold);
+
+    // Fill every user's feed from the follow graph, for feeds that predate feed_entries
+    @Modifying
+    @Query(value = "INSERT INTO feed_entries (recipient_id, post_id, author_id, post_created_at) " +
+                   "SELECT uf.follower_id, p.id, p.user_id, p.created_at FROM posts p " +
+                   "JOIN user_followers uf ON uf.following_id = p.user_id " +
+                   "JOIN users a ON a.id = p.user_id " +
+                   "WHERE a.follower_count < :pulledThreshold AND NOT EXISTS " +
+                   "(SELECT 1 FROM feed_entries e WHERE e.recipient_id = uf.follower_id AND e.post_id = p.id)",
+           nativeQuery = true)
+    int backfillAll(@Param("pulledThreshold") long pulledThreshold);
+
+    // Any one entry id, to tell whether feeds have been materialized at all
+    @Query("SELECT e.id FROM FeedEntry e")
+    List<Long> findAnyIds(Pageable pageable);
+
+    // Drop an author's posts from a recipient's feed (used after an unfollow)
+    @Modifying
+    @Query("DELETE FROM FeedEntry e WHERE e.recipientId = :recipientId AND e.authorId = :authorId")
+    int deleteByRecipientIdAndAuthorId(@Param("recipientId") Long recipientId, @Param("authorId") Long authorId);
+
+    // Drop a recipient's entries from authors they no longer follow or that
+    // are now pulled at read time (used by a rebuild)
+    @Modifying
+    @Query(value = "DELETE FROM feed_entries WHERE recipient_id = :recipientId AND (" +
+                   "NOT EXISTS (SELECT 1 FROM user_followers uf " +
+                   "WHERE uf.follower_id = :recipientId AND uf.following_id = feed_entries.author_id) OR " +
+                   "EXISTS (SELECT 1 FROM users a WHERE a.id = feed_entries.author_id " +
+                   "AND a.follower_count >= :pulledThreshold))",
+           nativeQuery = true)
+    int deleteStaleEntries(@Param("recipientId") Long recipientId, @Param("pulledThreshold") long pulledThreshold);
+
+    // Remove a deleted post from every feed
+    @Modifying
+    @Query("DELETE FROM FeedEntry e WHERE e.post.id = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+}
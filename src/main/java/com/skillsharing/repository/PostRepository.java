@@ -9,7 +9,13 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
@@ -17,6 +23,22 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     // Find posts by user
     Page<Post> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
     
+    // Newest posts of a single author, used as a pull cursor when merging feeds
+    @Query("SELECT p FROM Post p WHERE p.user.id = :userId ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findRecentByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    // Seek past a (createdAt, id) cursor instead of using OFFSET
+    @Query("SELECT p FROM Post p WHERE p.user.id = :userId AND " +
+           "(p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findByUserIdBefore(@Param("userId") Long userId,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id,
+                                  Pageable pageable);
+    
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.user.id IN :userIds")
+    long countByUserIds(@Param("userIds") Collection<Long> userIds);
+    
     // Find posts by type
     Page<Post> findByPostTypeOrderByCreatedAtDesc(Post.PostType postType, Pageable pageable);
     
@@ -38,16 +60,17 @@ public interface PostRepository extends JpaRepository<Post, Long> {
            "p.planEndDate >= CURRENT_DATE ORDER BY p.planStartDate ASC")
     List<Post> findActiveLearningPlans();
     
-    // Find posts with most likes
-    @Query("SELECT p FROM Post p LEFT JOIN p.likes l " +
-           "GROUP BY p ORDER BY COUNT(l) DESC")
-    Page<Post> findMostLikedPosts(Pageable pageable);
-    
-    // Find posts with most comments
-    @Query("SELECT p FROM Post p LEFT JOIN p.comments c " +
-           "GROUP BY p ORDER BY COUNT(c) DESC")
-    Page<Post> findMostCommentedPosts(Pageable pageable);
-    
+    // Denormalized counters, see EngagementCounterService
+    @Query("SELECT p.likeCount FROM Post p WHERE p.id = :postId")
+    Optional<Long> findLikeCountById(@Param("postId") Long postId);
+
+    @Query("SELECT p.commentCount FROM Post p WHERE p.id = :postId")
+    Optional<Long> findCommentCountById(@Param("postId") Long postId);
+
+    // Rows of (id, likeCount, commentCount) for the given posts
+    @Query("SELECT p.id, p.likeCount, p.commentCount FROM Post p WHERE p.id IN :postIds")
+    List<Object[]> findEngagementCountsByIds(@Param("postIds") Collection<Long> postIds);
+
     // Count likes for a post
     @Query("SELECT COUNT(l) FROM Post p JOIN p.likes l WHERE p.id = :postId")
     Long countLikesByPostId(@Param("postId") Long postId);
@@ -56,4 +79,21 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @Query("SELECT COUNT(l) > 0 FROM Post p JOIN p.likes l " +
            "WHERE p.id = :postId AND l.id = :userId")
     boolean hasUserLikedPost(@Param("postId") Long postId, @Param("userId") Long userId);
+    
+    // Load posts by id in one query, returned in the order of the given ids.
+    // Ids without a matching post (e.g. deleted since they were cached) are skipped.
+    default List<Post> findAllByIdInOrder(List<Long> ids) {
+        Map<Long, Post> byId = new HashMap<>();
+        for (Post post : findAllById(ids)) {
+            byId.put(post.getId(), post);
+        }
+        List<Post> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Post post = byId.get(id);
+            if (post != null) {
+                ordered.add(post);
+            }
+        }
+        return ordered;
+    }
 }
@@ -1,12 +1,18 @@
 package com.skillsharing.repository;
 
+import com.skillsharing.dto.UserCard;
 import com.skillsharing.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
@@ -24,9 +30,70 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(f) > 0 FROM User u JOIN u.followers f WHERE u.id = :userId AND f.id = :followerId")
     boolean isFollowing(@Param("userId") Long userId, @Param("followerId") Long followerId);
     
+    // The subset of :userIds that :followerId follows
+    @Query("SELECT f.id FROM User u JOIN u.following f WHERE u.id = :followerId AND f.id IN :userIds")
+    List<Long> findFollowedIdsAmong(@Param("followerId") Long followerId, @Param("userIds") Collection<Long> userIds);
+    
+    @Query("SELECT f.id FROM User u JOIN u.followers f WHERE u.id = :userId")
+    List<Long> findFollowerIdsByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT u.followerCount FROM User u WHERE u.id = :userId")
+    long countFollowersByUserId(@Param("userId") Long userId);
+    
+    // Users followed by :userId whose follower count puts them on the pull side of the feed
+    @Query("SELECT f.id FROM User u JOIN u.following f WHERE u.id = :userId AND f.followerCount >= :threshold")
+    List<Long> findFollowedIdsWithMinFollowers(@Param("userId") Long userId, @Param("threshold") long threshold);
+    
     @Query("SELECT u FROM User u WHERE u.id IN (SELECT f.id FROM User u2 JOIN u2.followers f WHERE u2.id = :userId)")
     List<User> findFollowersByUserId(@Param("userId") Long userId);
     
     @Query("SELECT u FROM User u WHERE u.id IN (SELECT f.id FROM User u2 JOIN u2.following f WHERE u2.id = :userId)")
     List<User> findFollowingByUserId(@Param("userId") Long userId);
+
+    // Follower and following cards of :userId, highest user id first, seeking
+    // past a :beforeId cursor instead of using OFFSET
+    @Query("SELECT new com.skillsharing.dto.UserCard(f.id, f.name, f.profilePicture, f.followerCount) " +
+           "FROM User u JOIN u.followers f WHERE u.id = :userId AND f.id < :beforeId ORDER BY f.id DESC")
+    List<UserCard> findFollowerCardsBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT new com.skillsharing.dto.UserCard(f.id, f.name, f.profilePicture, f.followerCount) " +
+           "FROM User u JOIN u.following f WHERE u.id = :userId AND f.id < :beforeId ORDER BY f.id DESC")
+    List<UserCard> findFollowingCardsBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT new com.skillsharing.dto.UserCard(u.id, u.name, u.profilePicture, u.followerCount) " +
+           "FROM User u WHERE u.id IN :ids")
+    List<UserCard> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Cards in the order of the given ids; ids without a matching user are skipped
+    default List<UserCard> findCardsInOrder(List<Long> ids) {
+        Map<Long, UserCard> byId = new HashMap<>();
+        for (UserCard card : findCardsByIdIn(ids)) {
+            byId.put(card.id(), card);
+        }
+        List<UserCard> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            UserCard card = byId.get(id);
+            if (card != null) {
+                ordered.add(card);
+            }
+        }
+        return ordered;
+    }
+
+    // Load users by id in one query, returned in the order of the given ids.
+    // Ids without a matching user are skipped.
+    default List<User> findAllByIdInOrder(List<Long> ids) {
+        Map<Long, User> byId = new HashMap<>();
+        for (User user : findAllById(ids)) {
+            byId.put(user.getId(), user);
+        }
+        List<User> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = byId.get(id);
+            if (user != null) {
+                ordered.add(user);
+            }
+        }
+        return ordered;
+    }
 }
@@ -1,6 +1,7 @@
 package com.skillsharing.security;
 
 import com.skillsharing.config.AppProperties;
+import com.skillsharing.service.LoginWarmupService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,6 +23,7 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
     private final TokenProvider tokenProvider;
     private final AppProperties appProperties;
     private final HttpCookieOAuth2AuthorizationRequestRepository httpCookieOAuth2AuthorizationRequestRepository;
+    private final LoginWarmupService loginWarmupService;
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, Authentication authentication) 
@@ -33,6 +35,11 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
             return;
         }
 
+        // Start preparing the feed while the client follows the redirect
+        if (authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            loginWarmupService.warmUpAsync(userPrincipal.getId());
+        }
+
         clearAuthenticationAttributes(request, response);
         getRedirectStrategy().sendRedirect(request, response, targetUrl);
     }
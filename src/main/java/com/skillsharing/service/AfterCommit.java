@@ -0,0 +1,26 @@
+package com.skillsharing.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Defers an in-memory update until the surrounding transaction commits, so a
+// rollback leaves caches and indexes untouched. Without a transaction the
+// update runs right away.
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
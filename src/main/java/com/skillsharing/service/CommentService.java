@@ -1,5 +1,7 @@
 package com.skillsharing.service;
 
+import com.skillsharing.dto.CursorPage;
+import com.skillsharing.dto.KeysetCursor;
 import com.skillsharing.model.Comment;
 import com.skillsharing.model.Post;
 import com.skillsharing.model.User;
@@ -9,10 +11,13 @@ import com.skillsharing.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -22,6 +27,10 @@ public class CommentService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final FeedRankingService feedRankingService;
+    private final EngagementCounterService engagementCounterService;
+    private final TrendingService trendingService;
+    private final HotPostsService hotPostsService;
 
     public Comment createComment(Long postId, Long userId, String content) {
         Post post = postRepository.findById(postId)
@@ -36,6 +45,13 @@ public class CommentService {
         comment.setContent(content);
         
         Comment savedComment = commentRepository.save(comment);
+        // Counters and rankings only see comments that were committed
+        AfterCommit.run(() -> {
+            engagementCounterService.incrementComments(postId);
+            feedRankingService.recordComment(post);
+            trendingService.recordComment(postId);
+            hotPostsService.recordComment(postId);
+        });
 
         // Create notification for post owner if commenter is not the post owner
         if (!post.getUser().getId().equals(userId)) {
@@ -77,7 +93,9 @@ public class CommentService {
             throw new IllegalArgumentException("User is not authorized to delete this comment");
         }
 
+        Long postId = comment.getPost().getId();
         commentRepository.delete(comment);
+        AfterCommit.run(() -> engagementCounterService.decrementComments(postId));
     }
 
     public Page<Comment> getPostComments(Long postId, Pageable pageable) {
@@ -87,6 +105,16 @@ public class CommentService {
         return commentRepository.findByPostOrderByCreatedAtDesc(post, pageable);
     }
 
+    public CursorPage<Comment> scrollPostComments(Long postId, KeysetCursor cursor, int size) {
+        if (!postRepository.existsById(postId)) {
+            throw new EntityNotFoundException("Post not found with id: " + postId);
+        }
+        List<Comment> rows = commentRepository.findByPostIdBefore(
+            postId, cursor.createdAt(), cursor.id(), PageRequest.of(0, size + 1));
+        return CursorPage.of(rows, size,
+            comment -> new KeysetCursor(comment.getCreatedAt(), comment.getId()).encode());
+    }
+
     public Page<Comment> getUserComments(Long userId, Pageable pageable) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
@@ -95,16 +123,15 @@ public class CommentService {
     }
 
     public Long getCommentsCount(Long postId) {
-        Post post = postRepository.findById(postId)
-            .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + postId));
-            
-        return commentRepository.countByPost(post);
+        return engagementCounterService.getCommentsCount(postId);
     }
 
     public void deleteAllPostComments(Long postId) {
         Post post = postRepository.findById(postId)
             .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + postId));
             
+        long removed = commentRepository.countByPost(post);
         commentRepository.deleteByPost(post);
+        AfterCommit.run(() -> engagementCounterService.addComments(postId, -removed));
     }
 }
@@ -0,0 +1,212 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.event.PostLikeChangedEvent;
+import com.skillsharing.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Like and comment counts per post. Changes are accumulated in memory as
+// striped LongAdder deltas and written behind to the like_count/comment_count
+// columns of posts in one JDBC batch every app.engagement.flushIntervalMs, so
+// a viral post costs one UPDATE per interval instead of one per like.
+// Reads are a primary-key lookup of the stored count plus the unflushed delta.
+@Slf4j
+@Service
+public class EngagementCounterService {
+
+    private static final String FLUSH_SQL =
+        "UPDATE posts SET like_count = like_count + ?, comment_count = comment_count + ? WHERE id = ?";
+    // Only rows whose stored counts are off are written
+    private static final String RECONCILE_SQL =
+        "UPDATE posts p SET " +
+        "like_count = (SELECT COUNT(*) FROM post_likes l WHERE l.post_id = p.id), " +
+        "comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id) " +
+        "WHERE like_count <> (SELECT COUNT(*) FROM post_likes l WHERE l.post_id = p.id) " +
+        "OR comment_count <> (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id)";
+
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean reconcileOnStartup;
+
+    // Writers add to `pending` under the shared lock. A flush swaps in a fresh
+    // map under the exclusive lock, so the map it drains has no writers left.
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Map<Long, Delta> pending = new ConcurrentHashMap<>();
+    // Deltas being written by the current flush; still counted by reads
+    private volatile Map<Long, Delta> flushing = Map.of();
+
+    public EngagementCounterService(PostRepository postRepository, JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager, AppProperties appProperties) {
+        this.postRepository = postRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileOnStartup = appProperties.getEngagement().isReconcileOnStartup();
+    }
+
+    // A clean shutdown flushes the buffered deltas, but a crash loses them, so
+    // unless app.engagement.reconcileOnStartup is off the stored counts are
+    // recomputed from post_likes and comments once, before the web server and
+    // the scheduled jobs that read them start
+    @PostConstruct
+    public void reconcile() {
+        if (!reconcileOnStartup) {
+            return;
+        }
+        int updated = jdbcTemplate.update(RECONCILE_SQL);
+        log.info("Reconciled engagement counts of {} posts", updated);
+    }
+
+    public void incrementLikes(Long postId) {
+        add(postId, 1, 0);
+    }
+
+    public void decrementLikes(Long postId) {
+        add(postId, -1, 0);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostLikeChanged(PostLikeChangedEvent event) {
+        if (event.liked()) {
+            incrementLikes(event.post().getId());
+        } else {
+            decrementLikes(event.post().getId());
+        }
+    }
+
+    public void incrementComments(Long postId) {
+        add(postId, 0, 1);
+    }
+
+    public void decrementComments(Long postId) {
+        add(postId, 0, -1);
+    }
+
+    public void addComments(Long postId, long delta) {
+        add(postId, 0, delta);
+    }
+
+    public long getLikesCount(Long postId) {
+        long stored = postRepository.findLikeCountById(postId)
+            .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + postId));
+        return stored + unflushed(postId, true);
+    }
+
+    public long getCommentsCount(Long postId) {
+        long stored = postRepository.findCommentCountById(postId)
+            .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + postId));
+        return stored + unflushed(postId, false);
+    }
+
+    // Counts of several posts from one IN-list query; unknown ids are left out
+    public Map<Long, Counts> getCounts(Collection<Long> postIds) {
+        Map<Long, Counts> counts = new HashMap<>();
+        if (postIds.isEmpty()) {
+            return counts;
+        }
+        for (Object[] row : postRepository.findEngagementCountsByIds(postIds)) {
+            Long postId = (Long) row[0];
+            counts.put(postId, new Counts(
+                (Long) row[1] + unflushed(postId, true),
+                (Long) row[2] + unflushed(postId, false)));
+        }
+        return counts;
+    }
+
+    // Writes all buffered deltas in one batch; returns the number of posts updated.
+    // On failure the deltas are put back and retried by the next flush.
+    @Scheduled(fixedDelayString = "${app.engagement.flushIntervalMs:1000}")
+    @PreDestroy
+    public synchronized int flush() {
+        Map<Long, Delta> drained;
+        swapLock.writeLock().lock();
+        try {
+            drained = pending;
+            if (drained.isEmpty()) {
+                return 0;
+            }
+            flushing = drained;
+            pending = new ConcurrentHashMap<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        List<Object[]> batch = new ArrayList<>(drained.size());
+        for (Map.Entry<Long, Delta> entry : drained.entrySet()) {
+            long likes = entry.getValue().likes.sum();
+            long comments = entry.getValue().comments.sum();
+            if (likes != 0 || comments != 0) {
+                batch.add(new Object[]{likes, comments, entry.getKey()});
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+            log.debug("Flushed engagement counters for {} posts", batch.size());
+            return batch.size();
+        } catch (RuntimeException e) {
+            log.warn("Engagement counter flush failed, retrying {} posts later", batch.size(), e);
+            for (Object[] row : batch) {
+                add((Long) row[2], (Long) row[0], (Long) row[1]);
+            }
+            return 0;
+        } finally {
+            // Between the commit and this line a read may briefly count a delta twice
+            flushing = Map.of();
+        }
+    }
+
+    private void add(Long postId, long likes, long comments) {
+        swapLock.readLock().lock();
+        try {
+            Delta delta = pending.computeIfAbsent(postId, id -> new Delta());
+            if (likes != 0) {
+                delta.likes.add(likes);
+            }
+            if (comments != 0) {
+                delta.comments.add(comments);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private long unflushed(Long postId, boolean likes) {
+        long total = 0;
+        for (Map<Long, Delta> deltas : List.of(pending, flushing)) {
+            Delta delta = deltas.get(postId);
+            if (delta != null) {
+                total += likes ? delta.likes.sum() : delta.comments.sum();
+            }
+        }
+        return total;
+    }
+
+    public record Counts(long likes, long comments) {
+    }
+
+    private static final class Delta {
+        private final LongAdder likes = new LongAdder();
+        private final LongAdder comments = new LongAdder();
+    }
+}
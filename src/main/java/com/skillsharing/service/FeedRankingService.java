@@ -0,0 +1,212 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.event.PostLikeChangedEvent;
+import com.skillsharing.model.Post;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Scores posts for the ranked feed. A post's score is the sum of its
+// creation and every like/comment, each weighted by e^(lambda * (t - EPOCH)).
+// With these forward-decayed weights newer activity counts for more, yet a
+// stored score never has to be recomputed as time passes: comparing two sums
+// gives the same order as decaying both to "now". Sums are kept as logarithms
+// so the exponent cannot overflow.
+@Slf4j
+@Service
+public class FeedRankingService {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final Map<Post.PostType, Double> TYPE_WEIGHTS = new EnumMap<>(Post.PostType.class);
+
+    static {
+        TYPE_WEIGHTS.put(Post.PostType.SKILL_SHARING, 1.0);
+        TYPE_WEIGHTS.put(Post.PostType.LEARNING_PROGRESS, 1.2);
+        TYPE_WEIGHTS.put(Post.PostType.LEARNING_PLAN, 1.5);
+    }
+
+    // Entries below a thousandth of a brand-new post's score are dropped when pruning
+    private static final double PRUNE_LOG_RELEVANCE = Math.log(1e-3);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final double lambdaPerSecond;
+    private final double likeWeight;
+    private final double commentWeight;
+    private final int maxTrackedPosts;
+    private final int seedDays;
+
+    // Post id -> log of the post's forward-decayed score. Posts without
+    // engagement are not stored; their score follows from createdAt.
+    private final Map<Long, Double> logScores = new ConcurrentHashMap<>();
+    // Size at which the next prune runs; raised when pruning frees too little
+    private volatile int pruneAtSize;
+
+    public FeedRankingService(JdbcTemplate jdbcTemplate, AppProperties appProperties) {
+        AppProperties.Feed feed = appProperties.getFeed();
+        this.jdbcTemplate = jdbcTemplate;
+        this.lambdaPerSecond = Math.log(2) / (feed.getRankingHalfLifeHours() * 3600);
+        this.likeWeight = feed.getRankingLikeWeight();
+        this.commentWeight = feed.getRankingCommentWeight();
+        this.maxTrackedPosts = feed.getRankingMaxTrackedPosts();
+        this.seedDays = feed.getRankingSeedDays();
+        this.pruneAtSize = maxTrackedPosts;
+    }
+
+    // Restores the scores of recent posts from their stored counters, treating
+    // their engagement as if it happened when the post was created
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (seedDays <= 0) {
+            return;
+        }
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusDays(seedDays));
+        jdbcTemplate.query(
+            "SELECT id, post_type, created_at, like_count, comment_count FROM posts " +
+            "WHERE created_at >= ? AND (like_count > 0 OR comment_count > 0)",
+            rs -> {
+                double weight = rs.getLong(4) * likeWeight + rs.getLong(5) * commentWeight;
+                if (weight <= 0) {
+                    return;
+                }
+                Post post = new Post();
+                post.setPostType(Post.PostType.valueOf(rs.getString(2)));
+                post.setCreatedAt(rs.getTimestamp(3).toLocalDateTime());
+                logScores.put(rs.getLong(1), logAdd(baseLogScore(post), logWeight(post, weight, post.getCreatedAt())));
+            },
+            since);
+        if (logScores.size() > pruneAtSize) {
+            prune(LocalDateTime.now());
+        }
+        log.info("Seeded feed ranking scores of {} posts", logScores.size());
+    }
+
+    public void recordLike(Post post) {
+        addEngagement(post, likeWeight, LocalDateTime.now());
+    }
+
+    // Takes back the weight a like would have at this moment. The like may be
+    // far older and weigh much less, so no more than an even share of the
+    // engagement score per stored like and comment is removed, and the score
+    // never goes below the post's own creation score.
+    public void recordUnlike(Post post) {
+        double likedNow = logWeight(post, likeWeight, LocalDateTime.now());
+        double base = baseLogScore(post);
+        long engagements = Math.max(1, post.getLikeCount() + post.getCommentCount());
+        logScores.computeIfPresent(post.getId(), (id, current) -> {
+            if (current <= base) {
+                return base;
+            }
+            double engagement = current + Math.log1p(-Math.exp(base - current));
+            double removed = Math.min(likedNow, engagement - Math.log(engagements));
+            return Math.max(current + Math.log1p(-Math.exp(removed - current)), base);
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostLikeChanged(PostLikeChangedEvent event) {
+        if (event.liked()) {
+            recordLike(event.post());
+        } else {
+            recordUnlike(event.post());
+        }
+    }
+
+    public void recordComment(Post post) {
+        addEngagement(post, commentWeight, LocalDateTime.now());
+    }
+
+    public void forget(Long postId) {
+        logScores.remove(postId);
+    }
+
+    // Highest scoring `limit` posts of the candidates, best first. Runs in
+    // O(n log limit) over the candidate window with no database access.
+    public List<Post> rank(List<Post> candidates, int limit) {
+        if (limit <= 0 || candidates.isEmpty()) {
+            return List.of();
+        }
+        Comparator<ScoredPost> order = Comparator.comparingDouble(ScoredPost::logScore)
+            .thenComparing(ScoredPost::post, FeedService.NEWEST_FIRST.reversed());
+
+        // Min-heap of the best `limit` candidates seen so far
+        PriorityQueue<ScoredPost> best = new PriorityQueue<>(limit + 1, order);
+        for (Post post : candidates) {
+            best.add(new ScoredPost(post, logScore(post)));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<ScoredPost> ranked = new ArrayList<>(best);
+        ranked.sort(order.reversed());
+        List<Post> result = new ArrayList<>(ranked.size());
+        for (ScoredPost scored : ranked) {
+            result.add(scored.post());
+        }
+        return result;
+    }
+
+    double logScore(Post post) {
+        Double stored = logScores.get(post.getId());
+        return stored != null ? stored : baseLogScore(post);
+    }
+
+    int trackedPosts() {
+        return logScores.size();
+    }
+
+    void addEngagement(Post post, double weight, LocalDateTime at) {
+        double added = logWeight(post, weight, at);
+        double base = baseLogScore(post);
+        logScores.compute(post.getId(), (id, current) -> logAdd(current != null ? current : base, added));
+        if (logScores.size() > pruneAtSize) {
+            prune(at);
+        }
+    }
+
+    private void prune(LocalDateTime now) {
+        double threshold = lambdaPerSecond * secondsSinceEpoch(now) + PRUNE_LOG_RELEVANCE;
+        logScores.values().removeIf(logScore -> logScore < threshold);
+        pruneAtSize = Math.max(maxTrackedPosts, logScores.size() + maxTrackedPosts / 10);
+    }
+
+    private double baseLogScore(Post post) {
+        LocalDateTime createdAt = post.getCreatedAt() != null ? post.getCreatedAt() : LocalDateTime.now();
+        return logWeight(post, 1.0, createdAt);
+    }
+
+    private double logWeight(Post post, double weight, LocalDateTime at) {
+        double typeWeight = TYPE_WEIGHTS.getOrDefault(post.getPostType(), 1.0);
+        return Math.log(weight * typeWeight) + lambdaPerSecond * secondsSinceEpoch(at);
+    }
+
+    private static double secondsSinceEpoch(LocalDateTime at) {
+        return Duration.between(EPOCH, at).getSeconds();
+    }
+
+    // log(e^a + e^b) without overflow
+    private static double logAdd(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    private record ScoredPost(Post post, double logScore) {
+    }
+}
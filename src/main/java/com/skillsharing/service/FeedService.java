@@ -0,0 +1,326 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.dto.CursorPage;
+import com.skillsharing.dto.KeysetCursor;
+import com.skillsharing.exception.TooManyRequestsException;
+import com.skillsharing.model.Post;
+import com.skillsharing.repository.FeedEntryRepository;
+import com.skillsharing.repository.PostRepository;
+import com.skillsharing.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class FeedService {
+
+    // Newest first, ties broken by id so the order is total and stable across pages
+    static final Comparator<Post> NEWEST_FIRST = Comparator
+        .comparing(Post::getCreatedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+        .thenComparing(Post::getId, Comparator.nullsFirst(Comparator.<Long>naturalOrder()))
+        .reversed();
+
+    private final FeedEntryRepository feedEntryRepository;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final AppProperties appProperties;
+    private final RecentFeedCache recentFeedCache;
+    private final FeedRankingService feedRankingService;
+    private final SocialGraph socialGraph;
+
+    // User id -> when their feed was last rebuilt, for the rebuild cooldown
+    private final Map<Long, Long> lastRebuilds = new ConcurrentHashMap<>();
+
+    // Push a newly created post into the feed of every follower of its author.
+    // High-follower authors are skipped here and pulled when the feed is read.
+    // The recent-feed cache is only told once the post is committed, so a feed
+    // load cannot miss the post and still be stored after the push.
+    public void fanOut(Post post) {
+        Long authorId = post.getUser().getId();
+        Long postId = post.getId();
+        if (isPulledAuthor(authorId)) {
+            AfterCommit.run(() -> recentFeedCache.markPulledAuthorPosted(authorId));
+            log.debug("Skipping fan-out of post {}: author {} is read on pull", postId, authorId);
+            return;
+        }
+
+        int written = feedEntryRepository.fanOutToFollowers(postId, authorId, post.getCreatedAt());
+        log.debug("Fanned out post {} to {} feeds", postId, written);
+
+        AfterCommit.run(() -> pushToCachedFeeds(authorId, postId));
+    }
+
+    private void pushToCachedFeeds(Long authorId, Long postId) {
+        recentFeedCache.markFannedOut();
+        if (recentFeedCache.isEmpty()) {
+            return;
+        }
+        if (socialGraph.isReady()) {
+            for (long followerId : socialGraph.followerIds(authorId)) {
+                recentFeedCache.pushIfPresent(followerId, postId);
+            }
+        } else {
+            for (Long followerId : userRepository.findFollowerIdsByUserId(authorId)) {
+                recentFeedCache.pushIfPresent(followerId, postId);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Post> getFeed(Long userId, Pageable pageable) {
+        if (pageable.getPageNumber() == 0 && pageable.getPageSize() <= recentFeedCache.capacity()) {
+            FeedHead head = readHead(userId, pageable.getPageSize());
+            return new PageImpl<>(head.posts(), pageable, head.total());
+        }
+        return loadFeed(userId, findPulledAuthorIds(userId), pageable);
+    }
+
+    private Page<Post> loadFeed(Long userId, List<Long> pulledAuthorIds, Pageable pageable) {
+        if (pulledAuthorIds.isEmpty()) {
+            return feedEntryRepository.findFeedPosts(userId, pageable);
+        }
+
+        // Every source is read up to the end of the requested page, then merged
+        int offset = (int) pageable.getOffset();
+        Pageable head = PageRequest.of(0, offset + pageable.getPageSize());
+
+        List<List<Post>> sources = new ArrayList<>(pulledAuthorIds.size() + 1);
+        sources.add(feedEntryRepository.findFeedPostsExcludingAuthors(userId, pulledAuthorIds, head));
+        for (Long authorId : pulledAuthorIds) {
+            sources.add(postRepository.findRecentByUserId(authorId, head));
+        }
+
+        List<Post> content = mergeNewestFirst(sources, offset, pageable.getPageSize());
+        long total = feedEntryRepository.countFeedEntriesExcludingAuthors(userId, pulledAuthorIds)
+            + postRepository.countByUserIds(pulledAuthorIds);
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    // First `limit` posts of the feed, served from the recent-feed cache when
+    // possible. A miss loads a full cache entry's worth of posts and stores it.
+    private FeedHead readHead(Long userId, int limit) {
+        RecentFeedCache.CachedFeed cached = recentFeedCache.get(userId, limit);
+        if (cached != null) {
+            List<Long> ids = new ArrayList<>(cached.postIds().length);
+            for (long id : cached.postIds()) {
+                ids.add(id);
+            }
+            List<Post> posts = postRepository.findAllByIdInOrder(ids);
+            if (posts.size() == ids.size()) {
+                return new FeedHead(posts, cached.total());
+            }
+            // A cached post has been deleted since; reload the entry
+            recentFeedCache.evict(userId);
+        }
+
+        long version = recentFeedCache.currentVersion();
+        List<Long> pulledAuthorIds = findPulledAuthorIds(userId);
+        Page<Post> loaded = loadFeed(userId, pulledAuthorIds, PageRequest.of(0, recentFeedCache.capacity()));
+        List<Post> content = loaded.getContent();
+
+        long[] postIds = new long[content.size()];
+        for (int i = 0; i < postIds.length; i++) {
+            postIds[i] = content.get(i).getId();
+        }
+        long[] authorIds = new long[pulledAuthorIds.size()];
+        for (int i = 0; i < authorIds.length; i++) {
+            authorIds[i] = pulledAuthorIds.get(i);
+        }
+        recentFeedCache.put(userId, postIds, loaded.getTotalElements(), authorIds, version);
+
+        return new FeedHead(content.subList(0, Math.min(limit, content.size())), loaded.getTotalElements());
+    }
+
+    // Load the head of the user's feed into the recent-feed cache, e.g. right
+    // after login, so the first /feed request is a cache hit
+    @Transactional(readOnly = true)
+    public void warmFeed(Long userId) {
+        if (!recentFeedCache.contains(userId)) {
+            readHead(userId, recentFeedCache.capacity());
+        }
+    }
+
+    // Keyset variant of getFeed: no OFFSET and no COUNT, every source seeks past the cursor
+    @Transactional(readOnly = true)
+    public CursorPage<Post> scrollFeed(Long userId, KeysetCursor cursor, int size) {
+        if (KeysetCursor.START.equals(cursor) && size <= recentFeedCache.capacity()) {
+            FeedHead head = readHead(userId, size);
+            List<Post> posts = head.posts();
+            boolean hasNext = !posts.isEmpty() && head.total() > posts.size();
+            return new CursorPage<>(posts, hasNext ? cursorOf(posts.get(posts.size() - 1)) : null, hasNext);
+        }
+
+        Pageable head = PageRequest.of(0, size + 1);
+        List<Long> pulledAuthorIds = findPulledAuthorIds(userId);
+
+        List<Post> rows;
+        if (pulledAuthorIds.isEmpty()) {
+            rows = feedEntryRepository.findFeedPostsBefore(userId, cursor.createdAt(), cursor.id(), head);
+        } else {
+            List<List<Post>> sources = new ArrayList<>(pulledAuthorIds.size() + 1);
+            sources.add(feedEntryRepository.findFeedPostsExcludingAuthorsBefore(
+                userId, pulledAuthorIds, cursor.createdAt(), cursor.id(), head));
+            for (Long authorId : pulledAuthorIds) {
+                sources.add(postRepository.findByUserIdBefore(authorId, cursor.createdAt(), cursor.id(), head));
+            }
+            rows = mergeNewestFirst(sources, 0, size + 1);
+        }
+        return CursorPage.of(rows, size, FeedService::cursorOf);
+    }
+
+    // Ranked mode: the newest posts of the feed reordered by engagement score.
+    // Scores are maintained as likes and comments arrive, so a read only
+    // ranks a bounded candidate window and never sorts in SQL.
+    @Transactional(readOnly = true)
+    public List<Post> getRankedFeed(Long userId, int size) {
+        int window = Math.max(size, appProperties.getFeed().getRankingCandidateWindow());
+        List<Post> candidates = window <= recentFeedCache.capacity()
+            ? readHead(userId, window).posts()
+            : loadFeed(userId, findPulledAuthorIds(userId), PageRequest.of(0, window)).getContent();
+        return feedRankingService.rank(candidates, size);
+    }
+
+    static String cursorOf(Post post) {
+        return new KeysetCursor(post.getCreatedAt(), post.getId()).encode();
+    }
+
+    // Bring the followed user's existing posts into the follower's feed
+    public void onFollow(Long followerId, Long followeeId) {
+        if (!isPulledAuthor(followeeId)) {
+            feedEntryRepository.backfillFromAuthor(followerId, followeeId);
+        }
+        recentFeedCache.evict(followerId);
+    }
+
+    // Remove the unfollowed user's posts from the follower's feed
+    public void onUnfollow(Long followerId, Long followeeId) {
+        feedEntryRepository.deleteByRecipientIdAndAuthorId(followerId, followeeId);
+        recentFeedCache.evict(followerId);
+
+        // The follower count column already includes this unfollow, the graph
+        // does not until commit. When this unfollow takes a pulled author below
+        // the threshold, the posts that were never fanned out are pushed now.
+        if (userRepository.countFollowersByUserId(followeeId) == celebrityThreshold() - 1) {
+            int written = feedEntryRepository.backfillAuthorToFollowers(followeeId);
+            log.debug("Author {} is no longer pulled, backfilled {} feed entries", followeeId, written);
+        }
+    }
+
+    public void removePost(Long postId) {
+        feedEntryRepository.deleteByPostId(postId);
+        feedRankingService.forget(postId);
+    }
+
+    // Materialize every user's feed once, on the first start after feed_entries
+    // was introduced; from then on fan-out and follows keep the feeds current
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillFeeds() {
+        if (!feedEntryRepository.findAnyIds(PageRequest.of(0, 1)).isEmpty()) {
+            return;
+        }
+        int written = feedEntryRepository.backfillAll(celebrityThreshold());
+        log.info("Backfilled {} feed entries", written);
+    }
+
+    // Bring a user's feed back in line with the follow graph, e.g. after a data
+    // repair: drops entries of unfollowed and pulled authors and adds missing
+    // ones. Allowed once per app.feed.rebuildCooldownMs per user.
+    public int rebuildFeed(Long userId) {
+        long now = System.currentTimeMillis();
+        long cooldownMs = appProperties.getFeed().getRebuildCooldownMs();
+        lastRebuilds.values().removeIf(at -> at <= now - cooldownMs);
+        Long last = lastRebuilds.putIfAbsent(userId, now);
+        if (last != null) {
+            throw new TooManyRequestsException("Feed was rebuilt recently, please try again later",
+                Math.max(1, (last + cooldownMs - now) / 1000));
+        }
+
+        int removed = feedEntryRepository.deleteStaleEntries(userId, celebrityThreshold());
+        int written = feedEntryRepository.backfillFromFollowing(userId, celebrityThreshold());
+        recentFeedCache.evict(userId);
+        log.debug("Rebuilt feed for user {}: removed {} and added {} entries", userId, removed, written);
+        return written;
+    }
+
+    private List<Long> findPulledAuthorIds(Long userId) {
+        if (!socialGraph.isReady()) {
+            return userRepository.findFollowedIdsWithMinFollowers(userId, celebrityThreshold());
+        }
+        List<Long> pulled = new ArrayList<>();
+        for (long followedId : socialGraph.followingIds(userId)) {
+            if (socialGraph.followerCount(followedId) >= celebrityThreshold()) {
+                pulled.add(followedId);
+            }
+        }
+        return pulled;
+    }
+
+    private boolean isPulledAuthor(Long authorId) {
+        if (!socialGraph.isReady()) {
+            return userRepository.countFollowersByUserId(authorId) >= celebrityThreshold();
+        }
+        return socialGraph.followerCount(authorId) >= celebrityThreshold();
+    }
+
+    private long celebrityThreshold() {
+        return appProperties.getFeed().getCelebrityFollowerThreshold();
+    }
+
+    // K-way merge of lists that are each sorted newest first. Skips the first
+    // `skip` merged posts and returns at most `limit`; duplicates are dropped.
+    static List<Post> mergeNewestFirst(List<List<Post>> sources, int skip, int limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sources.size()),
+            (a, b) -> NEWEST_FIRST.compare(sources.get(a[0]).get(a[1]), sources.get(b[0]).get(b[1])));
+        for (int i = 0; i < sources.size(); i++) {
+            if (!sources.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+
+        List<Post> merged = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        int skipped = 0;
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<Post> source = sources.get(head[0]);
+            Post post = source.get(head[1]);
+            if (head[1] + 1 < source.size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+
+            if (!seen.add(post.getId())) {
+                continue;
+            }
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                merged.add(post);
+            }
+        }
+        return merged;
+    }
+
+    private record FeedHead(List<Post> posts, long total) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.skillsharing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillsharing.dto.CursorPage;
+import com.skillsharing.dto.KeysetCursor;
+import com.skillsharing.model.Post;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes the feed to a response stream while walking it with keyset cursors.
+// Each batch is read and serialized in its own short read-only transaction;
+// the encoded posts are written and flushed only after it has ended, so a
+// slow client never holds a database connection. At most one batch is held
+// in memory, however many posts are streamed.
+@Slf4j
+@Service
+public class FeedStreamService {
+
+    public static final int MAX_LIMIT = 10000;
+    static final int BATCH_SIZE = CursorPage.DEFAULT_SIZE;
+
+    public enum Format {
+        NDJSON,
+        SSE
+    }
+
+    private final FeedService feedService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public FeedStreamService(FeedService feedService, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.feedService = feedService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // Streams up to `limit` feed posts after `cursor`; returns how many were written
+    public int streamFeed(Long userId, KeysetCursor cursor, int limit, Format format, OutputStream out) {
+        int written = 0;
+        KeysetCursor next = cursor;
+        while (next != null && written < limit) {
+            int batch = Math.min(BATCH_SIZE, limit - written);
+            KeysetCursor from = next;
+            // Posts are serialized inside the transaction so lazy associations still load
+            BatchResult result = transactionTemplate.execute(status -> {
+                CursorPage<Post> page = feedService.scrollFeed(userId, from, batch);
+                List<byte[]> encoded = new ArrayList<>(page.content().size());
+                for (Post post : page.content()) {
+                    encoded.add(encode(post, format));
+                }
+                return new BatchResult(encoded, page.hasNext() ? KeysetCursor.decode(page.nextCursor()) : null);
+            });
+            for (byte[] chunk : result.posts()) {
+                write(chunk, out);
+            }
+            written += result.posts().size();
+            next = result.next();
+        }
+        log.debug("Streamed {} feed posts to user {}", written, userId);
+        return written;
+    }
+
+    // One NDJSON line or SSE event
+    private byte[] encode(Post post, Format format) {
+        try {
+            ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+            byte[] json = objectMapper.writeValueAsBytes(post);
+            if (format == Format.SSE) {
+                // The event id is the post's cursor, so a reconnecting EventSource
+                // can resume from Last-Event-ID
+                chunk.write(("id: " + FeedService.cursorOf(post) + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+                chunk.write(json);
+                chunk.write("\n\n".getBytes(StandardCharsets.UTF_8));
+            } else {
+                chunk.write(json);
+                chunk.write('\n');
+            }
+            return chunk.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize feed post " + post.getId(), e);
+        }
+    }
+
+    private static void write(byte[] chunk, OutputStream out) {
+        try {
+            out.write(chunk);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write feed stream", e);
+        }
+    }
+
+    private record BatchResult(List<byte[]> posts, KeysetCursor next) {
+    }
+}
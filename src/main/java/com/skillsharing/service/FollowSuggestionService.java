@@ -0,0 +1,346 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.config.AsyncConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// "People you may know", materialized in the background. Candidates for a
+// user are the accounts followed by the accounts they follow, users who
+// posted learning plans on the same topics and users who liked the same
+// posts. Each candidate is scored on all three and the best are kept per
+// user, so a request only reads a short id array.
+//
+// A scheduled job loads topics and likes, then ranks every user on the
+// ranking fork/join pool in partitions of LEAF_SIZE users. Follow graph
+// hops are read from SocialGraph. When a user follows or unfollows someone
+// only their own list is recomputed, on the next stale refresh; the lists
+// of users two hops away catch up on the next full rebuild.
+@Slf4j
+@Service
+public class FollowSuggestionService {
+
+    // Users ranked per fork/join leaf
+    static final int LEAF_SIZE = 256;
+
+    private static final long[] NONE = new long[0];
+
+    private final SocialGraph socialGraph;
+    private final JdbcTemplate jdbcTemplate;
+    private final ForkJoinPool pool;
+    private final int perUser;
+    private final double mutualWeight;
+    private final double topicWeight;
+    private final double coLikeWeight;
+    private final int maxFanout;
+
+    private final Map<Long, long[]> suggestions = new ConcurrentHashMap<>();
+    private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+    private final Object refreshLock = new Object();
+
+    // Topics and likes from the last full rebuild; null until it has run
+    private volatile Signals signals;
+
+    public FollowSuggestionService(SocialGraph socialGraph, JdbcTemplate jdbcTemplate,
+                                   @Qualifier(AsyncConfig.RANKING_POOL) ForkJoinPool pool,
+                                   AppProperties appProperties) {
+        this.socialGraph = socialGraph;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pool = pool;
+        AppProperties.Graph graph = appProperties.getGraph();
+        this.perUser = graph.getSuggestionsPerUser();
+        this.mutualWeight = graph.getSuggestionMutualWeight();
+        this.topicWeight = graph.getSuggestionTopicWeight();
+        this.coLikeWeight = graph.getSuggestionCoLikeWeight();
+        this.maxFanout = graph.getSuggestionMaxFanout();
+    }
+
+    // Best suggestions first
+    public long[] suggestions(long userId, int limit) {
+        long[] ranked = suggestions.getOrDefault(userId, NONE);
+        return ranked.length <= limit ? ranked : Arrays.copyOf(ranked, limit);
+    }
+
+    // A user who was just followed disappears from the follower's list right
+    // away; the rest of the list is recomputed on the next stale refresh
+    public void recordFollow(Long followerId, Long followedId) {
+        AfterCommit.run(() -> {
+            suggestions.computeIfPresent(followerId, (id, ranked) -> without(ranked, followedId));
+            stale.add(followerId);
+        });
+    }
+
+    public void recordUnfollow(Long followerId, Long followedId) {
+        AfterCommit.run(() -> stale.add(followerId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.graph.suggestionRefreshMs:3600000}",
+               initialDelayString = "${app.graph.suggestionRefreshMs:3600000}")
+    public void refresh() {
+        if (!socialGraph.isReady()) {
+            return;
+        }
+        synchronized (refreshLock) {
+            long started = System.nanoTime();
+            Signals loaded = load();
+            stale.clear();
+            rebuild(loaded);
+            log.info("Ranked follow suggestions for {} users in {} ms",
+                loaded.userIds().length, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    // Also runs the first full rebuild once the follow graph has loaded
+    @Scheduled(fixedDelayString = "${app.graph.suggestionStaleRefreshMs:5000}")
+    public void refreshStale() {
+        if (!socialGraph.isReady()) {
+            return;
+        }
+        if (signals == null) {
+            refresh();
+            return;
+        }
+        synchronized (refreshLock) {
+            if (stale.isEmpty()) {
+                return;
+            }
+            List<Long> userIds = new ArrayList<>(stale);
+            stale.removeAll(userIds);
+            rank(userIds.stream().mapToLong(Long::longValue).toArray(), signals);
+        }
+    }
+
+    Signals load() {
+        Signals.Builder builder = new Signals.Builder();
+        jdbcTemplate.query("SELECT id FROM users", rs -> {
+            builder.addUser(rs.getLong(1));
+        });
+        jdbcTemplate.query(
+            "SELECT DISTINCT p.user_id, t.plan_topics FROM posts p JOIN learning_plan_topics t ON t.post_id = p.id",
+            rs -> {
+                builder.addTopic(rs.getLong(1), rs.getString(2));
+            });
+        jdbcTemplate.query("SELECT user_id, post_id FROM post_likes", rs -> {
+            builder.addLike(rs.getLong(1), rs.getLong(2));
+        });
+        return builder.build();
+    }
+
+    void rebuild(Signals signals) {
+        this.signals = signals;
+        rank(signals.userIds(), signals);
+        // Users deleted since the last rebuild
+        Set<Long> current = new HashSet<>(signals.userIds().length * 2);
+        for (long userId : signals.userIds()) {
+            current.add(userId);
+        }
+        suggestions.keySet().retainAll(current);
+    }
+
+    private void rank(long[] userIds, Signals signals) {
+        long[][] ranked = new long[userIds.length][];
+        pool.invoke(new RankTask(userIds, ranked, 0, userIds.length, signals));
+        for (int i = 0; i < userIds.length; i++) {
+            if (ranked[i].length == 0) {
+                suggestions.remove(userIds[i]);
+            } else {
+                suggestions.put(userIds[i], ranked[i]);
+            }
+        }
+    }
+
+    long[] rankUser(long userId, Signals signals) {
+        Map<Long, Candidate> candidates = new HashMap<>();
+        long[] following = socialGraph.followingIds(userId);
+        for (long followedId : following) {
+            long[] secondHop = socialGraph.followingIds(followedId);
+            if (secondHop.length <= maxFanout) {
+                for (long candidateId : secondHop) {
+                    candidates.computeIfAbsent(candidateId, Candidate::new).mutual++;
+                }
+            }
+        }
+        for (long topic : signals.topics(userId)) {
+            long[] audience = signals.usersByTopic(topic);
+            if (audience.length <= maxFanout) {
+                for (long candidateId : audience) {
+                    candidates.computeIfAbsent(candidateId, Candidate::new).topics++;
+                }
+            }
+        }
+        for (long postId : signals.likes(userId)) {
+            long[] likers = signals.likers(postId);
+            if (likers.length <= maxFanout) {
+                for (long candidateId : likers) {
+                    candidates.computeIfAbsent(candidateId, Candidate::new).coLikes++;
+                }
+            }
+        }
+
+        // Min-heap holding the best `perUser` candidates seen so far
+        Comparator<Candidate> order = Comparator.comparingDouble((Candidate candidate) -> candidate.score)
+            .thenComparing(Comparator.comparingLong((Candidate candidate) -> candidate.userId).reversed());
+        PriorityQueue<Candidate> best = new PriorityQueue<>(order);
+        for (Candidate candidate : candidates.values()) {
+            if (candidate.userId == userId || Arrays.binarySearch(following, candidate.userId) >= 0) {
+                continue;
+            }
+            candidate.score = candidate.mutual * mutualWeight + candidate.topics * topicWeight
+                + candidate.coLikes * coLikeWeight;
+            best.add(candidate);
+            if (best.size() > perUser) {
+                best.poll();
+            }
+        }
+        long[] ranked = new long[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = best.poll().userId;
+        }
+        return ranked;
+    }
+
+    private static long[] without(long[] ids, long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                long[] copy = new long[ids.length - 1];
+                System.arraycopy(ids, 0, copy, 0, i);
+                System.arraycopy(ids, i + 1, copy, i, copy.length - i);
+                return copy;
+            }
+        }
+        return ids;
+    }
+
+    private static final class Candidate {
+        private final long userId;
+        private int mutual;
+        private int topics;
+        private int coLikes;
+        private double score;
+
+        private Candidate(long userId) {
+            this.userId = userId;
+        }
+    }
+
+    // Ranks userIds[from, to) into ranked[from, to); halves run in parallel
+    private final class RankTask extends RecursiveAction {
+        private final long[] userIds;
+        private final long[][] ranked;
+        private final int from;
+        private final int to;
+        private final Signals signals;
+
+        private RankTask(long[] userIds, long[][] ranked, int from, int to, Signals signals) {
+            this.userIds = userIds;
+            this.ranked = ranked;
+            this.from = from;
+            this.to = to;
+            this.signals = signals;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    ranked[i] = rankUser(userIds[i], signals);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RankTask(userIds, ranked, from, mid, signals),
+                new RankTask(userIds, ranked, mid, to, signals));
+        }
+    }
+
+    // Interests and likes of every user as sorted id arrays, in both
+    // directions. Topics are interned to ids and matched case-insensitively.
+    record Signals(long[] userIds,
+                   Map<Long, long[]> topicsByUser, Map<Long, long[]> usersByTopic,
+                   Map<Long, long[]> likesByUser, Map<Long, long[]> likersByPost) {
+
+        long[] topics(long userId) {
+            return topicsByUser.getOrDefault(userId, NONE);
+        }
+
+        long[] usersByTopic(long topic) {
+            return usersByTopic.getOrDefault(topic, NONE);
+        }
+
+        long[] likes(long userId) {
+            return likesByUser.getOrDefault(userId, NONE);
+        }
+
+        long[] likers(long postId) {
+            return likersByPost.getOrDefault(postId, NONE);
+        }
+
+        static final class Builder {
+            private final List<Long> userIds = new ArrayList<>();
+            private final Map<String, Long> topicIds = new HashMap<>();
+            private final Map<Long, List<Long>> topicsByUser = new HashMap<>();
+            private final Map<Long, List<Long>> usersByTopic = new HashMap<>();
+            private final Map<Long, List<Long>> likesByUser = new HashMap<>();
+            private final Map<Long, List<Long>> likersByPost = new HashMap<>();
+
+            Builder addUser(long userId) {
+                userIds.add(userId);
+                return this;
+            }
+
+            Builder addTopic(long userId, String topic) {
+                if (topic == null || topic.isBlank()) {
+                    return this;
+                }
+                String key = topic.strip().toLowerCase(Locale.ROOT);
+                Long topicId = topicIds.get(key);
+                if (topicId == null) {
+                    topicId = (long) topicIds.size();
+                    topicIds.put(key, topicId);
+                }
+                topicsByUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(topicId);
+                usersByTopic.computeIfAbsent(topicId, id -> new ArrayList<>()).add(userId);
+                return this;
+            }
+
+            Builder addLike(long userId, long postId) {
+                likesByUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(postId);
+                likersByPost.computeIfAbsent(postId, id -> new ArrayList<>()).add(userId);
+                return this;
+            }
+
+            Signals build() {
+                return new Signals(sorted(userIds), sorted(topicsByUser), sorted(usersByTopic),
+                    sorted(likesByUser), sorted(likersByPost));
+            }
+
+            // Distinct ids, ascending
+            private static long[] sorted(List<Long> ids) {
+                return ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+            }
+
+            private static Map<Long, long[]> sorted(Map<Long, List<Long>> lists) {
+                Map<Long, long[]> arrays = new HashMap<>(lists.size() * 2);
+                lists.forEach((id, ids) -> arrays.put(id, sorted(ids)));
+                return arrays;
+            }
+        }
+    }
+}
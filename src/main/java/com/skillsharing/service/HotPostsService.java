@@ -0,0 +1,247 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.event.PostLikeChangedEvent;
+import com.skillsharing.model.Post;
+import com.skillsharing.repository.PostRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// "Hot right now": posts with the most views, likes and comments in the last
+// window (an hour by default), in memory whose size does not depend on the
+// number of posts.
+//
+// The window is a ring of time buckets. Each bucket holds a count-min sketch,
+// which estimates any post's weighted activity in that bucket, and a
+// Space-Saving summary per stripe, which remembers the posts most likely to be
+// heavy hitters. A query takes the summaries' posts as candidates and ranks
+// them by their sketch estimates summed over the window. Sketch updates are
+// lock-free; summaries are striped by post id, so only requests for posts in
+// the same stripe contend.
+@Service
+public class HotPostsService {
+
+    private final PostRepository postRepository;
+    private final long bucketMillis;
+    private final Bucket[] buckets;
+    private final double viewWeight;
+    private final double likeWeight;
+    private final double commentWeight;
+
+    public HotPostsService(PostRepository postRepository, AppProperties appProperties) {
+        AppProperties.Trending trending = appProperties.getTrending();
+        this.postRepository = postRepository;
+        int bucketCount = trending.getHotBuckets();
+        this.bucketMillis = Math.max(1, trending.getHotWindowMinutes() * 60_000L / bucketCount);
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket(trending.getHotSketchDepth(), trending.getHotSketchWidth(),
+                trending.getHotStripes(), trending.getHotCandidatesPerStripe());
+        }
+        this.viewWeight = trending.getHotViewWeight();
+        this.likeWeight = trending.getHotLikeWeight();
+        this.commentWeight = trending.getHotCommentWeight();
+    }
+
+    public void recordView(Long postId) {
+        record(postId, viewWeight, System.currentTimeMillis());
+    }
+
+    public void recordComment(Long postId) {
+        record(postId, commentWeight, System.currentTimeMillis());
+    }
+
+    // Unlikes are not subtracted: a sketch can only count up, and a like that
+    // was taken back was still activity in the window
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostLikeChanged(PostLikeChangedEvent event) {
+        if (event.liked()) {
+            record(event.post().getId(), likeWeight, System.currentTimeMillis());
+        }
+    }
+
+    public List<Post> getHotPosts(int limit) {
+        List<Long> ids = topPostIds(limit, System.currentTimeMillis());
+        return ids.isEmpty() ? List.of() : postRepository.findAllByIdInOrder(ids);
+    }
+
+    void record(Long postId, double weight, long nowMillis) {
+        // Sketch cells are longs; weights are kept to a hundredth
+        long units = Math.round(weight * 100);
+        if (units > 0) {
+            bucketFor(nowMillis / bucketMillis).add(postId, units);
+        }
+    }
+
+    List<Long> topPostIds(int limit, long nowMillis) {
+        long currentSlot = nowMillis / bucketMillis;
+        List<Bucket> window = new ArrayList<>(buckets.length);
+        for (Bucket bucket : buckets) {
+            if (bucket.slot > currentSlot - buckets.length && bucket.slot <= currentSlot) {
+                window.add(bucket);
+            }
+        }
+
+        Set<Long> candidates = new HashSet<>();
+        for (Bucket bucket : window) {
+            bucket.collectCandidates(candidates);
+        }
+        Map<Long, Long> estimates = new HashMap<>();
+        for (Long postId : candidates) {
+            long total = 0;
+            for (Bucket bucket : window) {
+                total += bucket.sketch.estimate(postId);
+            }
+            estimates.put(postId, total);
+        }
+
+        List<Long> ranked = new ArrayList<>(candidates);
+        ranked.sort(Comparator.comparing((Long id) -> estimates.get(id)).reversed()
+            .thenComparing(Comparator.reverseOrder()));
+        return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+    }
+
+    private Bucket bucketFor(long slot) {
+        Bucket bucket = buckets[(int) Math.floorMod(slot, (long) buckets.length)];
+        if (bucket.slot < slot) {
+            bucket.reset(slot);
+        }
+        return bucket;
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+
+    private static final class Bucket {
+        private final CountMinSketch sketch;
+        private final SpaceSaving[] stripes;
+        private volatile long slot = Long.MIN_VALUE;
+
+        private Bucket(int depth, int width, int stripeCount, int candidatesPerStripe) {
+            this.sketch = new CountMinSketch(depth, width);
+            this.stripes = new SpaceSaving[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new SpaceSaving(candidatesPerStripe);
+            }
+        }
+
+        private void add(Long postId, long units) {
+            sketch.add(postId, units);
+            SpaceSaving stripe = stripes[(int) Math.floorMod(mix(postId), (long) stripes.length)];
+            synchronized (stripe) {
+                stripe.add(postId, units);
+            }
+        }
+
+        private void collectCandidates(Set<Long> into) {
+            for (SpaceSaving stripe : stripes) {
+                synchronized (stripe) {
+                    into.addAll(stripe.items());
+                }
+            }
+        }
+
+        // The bucket is reused for a new time slot. Updates racing with the
+        // reset may be lost or land in the new slot; counts are estimates anyway.
+        private synchronized void reset(long newSlot) {
+            if (slot >= newSlot) {
+                return;
+            }
+            sketch.clear();
+            for (SpaceSaving stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.counts.clear();
+                }
+            }
+            slot = newSlot;
+        }
+    }
+
+    // Fixed depth x width grid of counters; an item's estimate is the smallest
+    // of its cells and never below its true count
+    static final class CountMinSketch {
+        private final int depth;
+        private final int width;
+        private final AtomicLongArray cells;
+
+        CountMinSketch(int depth, int width) {
+            this.depth = depth;
+            this.width = width;
+            this.cells = new AtomicLongArray(depth * width);
+        }
+
+        void add(long item, long count) {
+            for (int row = 0; row < depth; row++) {
+                cells.addAndGet(index(row, item), count);
+            }
+        }
+
+        long estimate(long item) {
+            long min = Long.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                min = Math.min(min, cells.get(index(row, item)));
+            }
+            return min;
+        }
+
+        void clear() {
+            for (int i = 0; i < cells.length(); i++) {
+                cells.set(i, 0);
+            }
+        }
+
+        private int index(int row, long item) {
+            long hash = mix(item + row * 0x9e3779b97f4a7c15L);
+            return row * width + (int) Math.floorMod(hash, (long) width);
+        }
+    }
+
+    // Space-Saving summary: tracks at most `capacity` items. A new item
+    // replaces the one with the smallest count and inherits that count, so an
+    // item with more than total/capacity weight is never missed.
+    static final class SpaceSaving {
+        private final int capacity;
+        private final Map<Long, Long> counts = new HashMap<>();
+
+        SpaceSaving(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void add(Long item, long count) {
+            Long current = counts.get(item);
+            if (current != null || counts.size() < capacity) {
+                counts.put(item, (current != null ? current : 0) + count);
+                return;
+            }
+            // O(capacity) scan; capacities are small and this only runs for untracked items
+            Long minItem = null;
+            long min = Long.MAX_VALUE;
+            for (Map.Entry<Long, Long> entry : counts.entrySet()) {
+                if (entry.getValue() < min) {
+                    min = entry.getValue();
+                    minItem = entry.getKey();
+                }
+            }
+            counts.remove(minItem);
+            counts.put(item, min + count);
+        }
+
+        Set<Long> items() {
+            return counts.keySet();
+        }
+    }
+}
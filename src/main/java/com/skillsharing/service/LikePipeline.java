@@ -0,0 +1,225 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.event.PostLikeChangedEvent;
+import com.skillsharing.model.Post;
+import com.skillsharing.repository.PostRepository;
+import com.skillsharing.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Buffers like/unlike requests and writes them to post_likes in JDBC batches.
+// Requests are partitioned by post id; within a partition only the latest
+// requested state per (post, user) is kept, so a double tap or a like/unlike
+// toggle inside one flush window costs at most one row write. A partition
+// that reaches its capacity is flushed by the submitting thread.
+//
+// Side effects (counters, notifications, ...) hang off PostLikeChangedEvent,
+// which is published only for rows whose state really changed. In-memory
+// listeners react after the flush commits, so a batch that rolls back and
+// is retried row by row is never counted twice.
+@Slf4j
+@Component
+public class LikePipeline {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO post_likes (post_id, user_id) SELECT ?, ? " +
+        "WHERE EXISTS (SELECT 1 FROM posts WHERE id = ?) " +
+        "AND NOT EXISTS (SELECT 1 FROM post_likes WHERE post_id = ? AND user_id = ?)";
+    private static final String DELETE_SQL = "DELETE FROM post_likes WHERE post_id = ? AND user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Partition[] partitions;
+    private final int partitionCapacity;
+
+    public LikePipeline(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        PostRepository postRepository, UserRepository userRepository,
+                        ApplicationEventPublisher eventPublisher, AppProperties appProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // A partition that fills up is flushed by the submitting request, which
+        // may be inside its own transaction. Each batch commits or rolls back on
+        // its own, so a failed batch never dooms the caller's transaction or the
+        // row-by-row retry that follows it.
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.partitions = new Partition[appProperties.getEngagement().getLikePartitions()];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition();
+        }
+        this.partitionCapacity = appProperties.getEngagement().getLikePartitionCapacity();
+    }
+
+    public void submit(Long postId, Long userId, boolean liked) {
+        Partition partition = partitionFor(postId);
+        boolean full;
+        synchronized (partition) {
+            partition.pending.put(new LikeKey(postId, userId), liked);
+            full = partition.pending.size() >= partitionCapacity;
+        }
+        if (full) {
+            flush(partition);
+        }
+    }
+
+    // The not yet persisted state requested for (post, user), or null if none
+    public Boolean pendingState(Long postId, Long userId) {
+        Partition partition = partitionFor(postId);
+        LikeKey key = new LikeKey(postId, userId);
+        synchronized (partition) {
+            Boolean state = partition.pending.get(key);
+            return state != null ? state : partition.inFlight.get(key);
+        }
+    }
+
+    // Writes every partition; returns the number of post_likes rows changed
+    @Scheduled(fixedDelayString = "${app.engagement.likeFlushIntervalMs:200}")
+    @PreDestroy
+    public int flush() {
+        int changed = 0;
+        for (Partition partition : partitions) {
+            changed += flush(partition);
+        }
+        return changed;
+    }
+
+    private int flush(Partition partition) {
+        // One writer per partition, so requests for a post are applied in order
+        synchronized (partition.flushLock) {
+            Map<LikeKey, Boolean> drained;
+            synchronized (partition) {
+                if (partition.pending.isEmpty()) {
+                    return 0;
+                }
+                drained = partition.pending;
+                partition.pending = new LinkedHashMap<>();
+                partition.inFlight = drained;
+            }
+
+            try {
+                return write(drained);
+            } catch (RuntimeException e) {
+                log.warn("Like flush of {} requests failed, retrying them one by one", drained.size(), e);
+                return writeEach(drained);
+            } finally {
+                synchronized (partition) {
+                    partition.inFlight = Map.of();
+                }
+            }
+        }
+    }
+
+    // One bad request, such as a like from a user deleted in the meantime,
+    // must not hold back the rest of its batch; requests that fail on their
+    // own are dropped instead of being retried forever
+    private int writeEach(Map<LikeKey, Boolean> drained) {
+        int changed = 0;
+        for (Map.Entry<LikeKey, Boolean> request : drained.entrySet()) {
+            try {
+                changed += write(Map.of(request.getKey(), request.getValue()));
+            } catch (RuntimeException e) {
+                log.error("Dropping like request {} (liked={})", request.getKey(), request.getValue(), e);
+            }
+        }
+        return changed;
+    }
+
+    private int write(Map<LikeKey, Boolean> drained) {
+        List<LikeKey> likes = new ArrayList<>();
+        List<LikeKey> unlikes = new ArrayList<>();
+        drained.forEach((key, liked) -> (liked ? likes : unlikes).add(key));
+
+        Integer changed = transactionTemplate.execute(status -> {
+            List<LikeKey> liked = changedRows(likes, batch(INSERT_SQL, likes, true));
+            List<LikeKey> unliked = changedRows(unlikes, batch(DELETE_SQL, unlikes, false));
+            publish(liked, unliked);
+            return liked.size() + unliked.size();
+        });
+        log.debug("Flushed {} like requests, {} rows changed", drained.size(), changed);
+        return changed != null ? changed : 0;
+    }
+
+    private int[] batch(String sql, List<LikeKey> keys, boolean insert) {
+        if (keys.isEmpty()) {
+            return new int[0];
+        }
+        List<Object[]> args = new ArrayList<>(keys.size());
+        for (LikeKey key : keys) {
+            args.add(insert
+                ? new Object[]{key.postId(), key.userId(), key.postId(), key.postId(), key.userId()}
+                : new Object[]{key.postId(), key.userId()});
+        }
+        return jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    private static List<LikeKey> changedRows(List<LikeKey> keys, int[] counts) {
+        List<LikeKey> changed = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                changed.add(keys.get(i));
+            }
+        }
+        return changed;
+    }
+
+    private void publish(List<LikeKey> liked, List<LikeKey> unliked) {
+        if (liked.isEmpty() && unliked.isEmpty()) {
+            return;
+        }
+        Set<Long> postIds = new HashSet<>();
+        liked.forEach(key -> postIds.add(key.postId()));
+        unliked.forEach(key -> postIds.add(key.postId()));
+        Map<Long, Post> posts = new HashMap<>();
+        for (Post post : postRepository.findAllById(postIds)) {
+            posts.put(post.getId(), post);
+        }
+
+        for (LikeKey key : liked) {
+            publish(posts.get(key.postId()), key.userId(), true);
+        }
+        for (LikeKey key : unliked) {
+            publish(posts.get(key.postId()), key.userId(), false);
+        }
+    }
+
+    private void publish(Post post, Long userId, boolean liked) {
+        if (post != null) {
+            eventPublisher.publishEvent(new PostLikeChangedEvent(post, userRepository.getReferenceById(userId), liked));
+        }
+    }
+
+    private Partition partitionFor(Long postId) {
+        return partitions[(int) Math.floorMod(postId, (long) partitions.length)];
+    }
+
+    private record LikeKey(Long postId, Long userId) {
+    }
+
+    private static final class Partition {
+        private final Object flushLock = new Object();
+        private Map<LikeKey, Boolean> pending = new LinkedHashMap<>();
+        // Requests being written by the current flush; still visible to pendingState
+        private Map<LikeKey, Boolean> inFlight = Map.of();
+    }
+}
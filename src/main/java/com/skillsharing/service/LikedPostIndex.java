@@ -0,0 +1,194 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.event.PostLikeChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory copy of post_likes: for every user, the ids of the posts they
+// liked as a sorted long[]. Has-liked checks are a binary search instead of a
+// join query. The index is filled from post_likes once the application is
+// ready; users not loaded yet are read from the database on first use.
+//
+// Arrays are never modified in place. Likes and unlikes replace the user's
+// array after their transaction commits, so readers need no locking.
+@Slf4j
+@Component
+public class LikedPostIndex {
+
+    private static final long[] NONE = new long[0];
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean preload;
+
+    private final Map<Long, long[]> likedByUser = new ConcurrentHashMap<>();
+    // Users whose likes changed while the startup load ran; their loaded arrays may be stale
+    private final Set<Long> changedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+
+    public LikedPostIndex(JdbcTemplate jdbcTemplate, AppProperties appProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.preload = appProperties.getEngagement().isLikedIndexPreload();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!preload) {
+            return;
+        }
+        loading = true;
+        try {
+            int[] users = {0};
+            UserLikes current = new UserLikes();
+            jdbcTemplate.query("SELECT user_id, post_id FROM post_likes ORDER BY user_id, post_id", rs -> {
+                long userId = rs.getLong(1);
+                if (current.userId != null && current.userId != userId) {
+                    likedByUser.putIfAbsent(current.userId, current.toArray());
+                    users[0]++;
+                    current.reset();
+                }
+                current.userId = userId;
+                current.add(rs.getLong(2));
+            });
+            if (current.userId != null) {
+                likedByUser.putIfAbsent(current.userId, current.toArray());
+                users[0]++;
+            }
+            log.info("Loaded liked-post index for {} users", users[0]);
+        } finally {
+            loading = false;
+            // Reloaded from the database on next use
+            for (Long userId : changedDuringLoad) {
+                likedByUser.remove(userId);
+            }
+            changedDuringLoad.clear();
+        }
+    }
+
+    public boolean hasLiked(Long userId, Long postId) {
+        return Arrays.binarySearch(likedPostIds(userId), postId) >= 0;
+    }
+
+    // The subset of postIds the user has liked
+    public Set<Long> likedAmong(Long userId, Collection<Long> postIds) {
+        long[] liked = likedPostIds(userId);
+        Set<Long> result = new HashSet<>();
+        if (liked.length == 0) {
+            return result;
+        }
+        for (Long postId : postIds) {
+            if (Arrays.binarySearch(liked, postId) >= 0) {
+                result.add(postId);
+            }
+        }
+        return result;
+    }
+
+    @EventListener
+    public void onPostLikeChanged(PostLikeChangedEvent event) {
+        if (event.liked()) {
+            recordLike(event.user().getId(), event.post().getId());
+        } else {
+            recordUnlike(event.user().getId(), event.post().getId());
+        }
+    }
+
+    public void recordLike(Long userId, Long postId) {
+        afterCommit(userId, () -> likedByUser.computeIfPresent(userId, (id, liked) -> withPost(liked, postId)));
+    }
+
+    public void recordUnlike(Long userId, Long postId) {
+        afterCommit(userId, () -> likedByUser.computeIfPresent(userId, (id, liked) -> withoutPost(liked, postId)));
+    }
+
+    int indexedUsers() {
+        return likedByUser.size();
+    }
+
+    private long[] likedPostIds(Long userId) {
+        // The load runs inside computeIfAbsent so a concurrent like for the same
+        // user waits for it instead of being applied to a missing entry
+        return likedByUser.computeIfAbsent(userId, this::loadUser);
+    }
+
+    private long[] loadUser(Long userId) {
+        List<Long> ids = jdbcTemplate.queryForList(
+            "SELECT post_id FROM post_likes WHERE user_id = ? ORDER BY post_id", Long.class, userId);
+        if (ids.isEmpty()) {
+            return NONE;
+        }
+        long[] liked = new long[ids.size()];
+        for (int i = 0; i < liked.length; i++) {
+            liked[i] = ids.get(i);
+        }
+        return liked;
+    }
+
+    private void afterCommit(Long userId, Runnable update) {
+        if (loading) {
+            changedDuringLoad.add(userId);
+        }
+        AfterCommit.run(update);
+    }
+
+    static long[] withPost(long[] liked, long postId) {
+        int index = Arrays.binarySearch(liked, postId);
+        if (index >= 0) {
+            return liked;
+        }
+        int insertAt = -index - 1;
+        long[] result = new long[liked.length + 1];
+        System.arraycopy(liked, 0, result, 0, insertAt);
+        result[insertAt] = postId;
+        System.arraycopy(liked, insertAt, result, insertAt + 1, liked.length - insertAt);
+        return result;
+    }
+
+    static long[] withoutPost(long[] liked, long postId) {
+        int index = Arrays.binarySearch(liked, postId);
+        if (index < 0) {
+            return liked;
+        }
+        if (liked.length == 1) {
+            return NONE;
+        }
+        long[] result = new long[liked.length - 1];
+        System.arraycopy(liked, 0, result, 0, index);
+        System.arraycopy(liked, index + 1, result, index, liked.length - index - 1);
+        return result;
+    }
+
+    // Growable buffer for one user's ids while streaming the startup load
+    private static final class UserLikes {
+        private Long userId;
+        private long[] ids = new long[16];
+        private int size;
+
+        private void add(long postId) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = postId;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        private void reset() {
+            userId = null;
+            size = 0;
+        }
+    }
+}
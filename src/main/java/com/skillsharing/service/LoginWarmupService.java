@@ -0,0 +1,46 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AsyncConfig;
+import com.skillsharing.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+// Prepares what the client asks for right after the OAuth2 redirect (the
+// first feed page and the unread notification badge) while the browser is
+// still following the redirect. Runs on the bounded warm-up executor and is
+// best effort: a full queue or a failure only means the first request is cold.
+@Slf4j
+@Service
+public class LoginWarmupService {
+
+    private final FeedService feedService;
+    private final NotificationService notificationService;
+    private final UserRepository userRepository;
+    private final TaskExecutor executor;
+
+    public LoginWarmupService(FeedService feedService,
+                              NotificationService notificationService,
+                              UserRepository userRepository,
+                              @Qualifier(AsyncConfig.FEED_WARMUP_EXECUTOR) TaskExecutor executor) {
+        this.feedService = feedService;
+        this.notificationService = notificationService;
+        this.userRepository = userRepository;
+        this.executor = executor;
+    }
+
+    public void warmUpAsync(Long userId) {
+        executor.execute(() -> warmUp(userId));
+    }
+
+    void warmUp(Long userId) {
+        try {
+            feedService.warmFeed(userId);
+            userRepository.findById(userId).ifPresent(notificationService::getUnreadCount);
+            log.debug("Warmed up feed and unread count for user {}", userId);
+        } catch (RuntimeException e) {
+            log.warn("Login warm-up failed for user {}", userId, e);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.config.AsyncConfig;
+import com.skillsharing.model.Post;
+import com.skillsharing.repository.PostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Most-discussed rankings, materialized in the background. A scheduled job
+// reads comment counts per post for each window, ranks them for every
+// (window, post type) pair on a fork/join pool and publishes the result as
+// one immutable snapshot. Requests only slice the current snapshot's id
+// arrays, so they never wait for the job.
+//
+// All-time counts come from the denormalized posts.comment_count column;
+// the day and week windows count comments created since the window start.
+@Slf4j
+@Service
+public class MostDiscussedService {
+
+    public enum Window {
+        DAY(Duration.ofDays(1)),
+        WEEK(Duration.ofDays(7)),
+        ALL_TIME(null);
+
+        private final Duration length;
+
+        Window(Duration length) {
+            this.length = length;
+        }
+    }
+
+    // Posts per fork/join leaf; smaller slices are ranked with a heap in one thread
+    static final int LEAF_SIZE = 4096;
+
+    private static final Comparator<PostCounts> NEWEST_FIRST =
+        Comparator.comparingLong(PostCounts::postId).reversed();
+
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ForkJoinPool pool;
+    private final int maxRanked;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public MostDiscussedService(PostRepository postRepository, JdbcTemplate jdbcTemplate,
+                                @Qualifier(AsyncConfig.RANKING_POOL) ForkJoinPool pool,
+                                AppProperties appProperties) {
+        this.postRepository = postRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pool = pool;
+        this.maxRanked = appProperties.getTrending().getMostDiscussedMaxRanked();
+    }
+
+    // type may be null for all post types
+    public Page<Post> getMostDiscussed(Window window, Post.PostType type, Pageable pageable) {
+        long[] ranked = snapshot.ranking(window, type);
+        int from = (int) Math.min(pageable.getOffset(), ranked.length);
+        int to = Math.min(from + pageable.getPageSize(), ranked.length);
+        if (from == to) {
+            return new PageImpl<>(List.of(), pageable, ranked.length);
+        }
+        List<Long> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(ranked[i]);
+        }
+        return new PageImpl<>(postRepository.findAllByIdInOrder(ids), pageable, ranked.length);
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.mostDiscussedRefreshMs:300000}")
+    public void refresh() {
+        long started = System.nanoTime();
+        PostCounts[] posts = load(LocalDateTime.now());
+        snapshot = build(posts);
+        log.debug("Ranked most-discussed posts over {} posts in {} ms",
+            posts.length, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    PostCounts[] load(LocalDateTime now) {
+        Map<Long, long[]> windowed = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT post_id, COUNT(*), SUM(CASE WHEN created_at >= ? THEN 1 ELSE 0 END) " +
+            "FROM comments WHERE created_at >= ? GROUP BY post_id",
+            rs -> {
+                windowed.put(rs.getLong(1), new long[]{rs.getLong(3), rs.getLong(2)});
+            },
+            Timestamp.valueOf(now.minus(Window.DAY.length)), Timestamp.valueOf(now.minus(Window.WEEK.length)));
+
+        List<PostCounts> posts = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, post_type, comment_count FROM posts WHERE comment_count > 0", rs -> {
+            long postId = rs.getLong(1);
+            long[] recent = windowed.getOrDefault(postId, new long[2]);
+            posts.add(new PostCounts(postId, Post.PostType.valueOf(rs.getString(2)),
+                recent[0], recent[1], rs.getLong(3)));
+        });
+        return posts.toArray(new PostCounts[0]);
+    }
+
+    Snapshot build(PostCounts[] posts) {
+        List<RankingKey> keys = new ArrayList<>();
+        List<TopTask> tasks = new ArrayList<>();
+        for (Window window : Window.values()) {
+            keys.add(new RankingKey(window, null));
+            tasks.add(new TopTask(posts, 0, posts.length, window, null, maxRanked));
+            for (Post.PostType type : Post.PostType.values()) {
+                keys.add(new RankingKey(window, type));
+                tasks.add(new TopTask(posts, 0, posts.length, window, type, maxRanked));
+            }
+        }
+        for (TopTask task : tasks) {
+            pool.execute(task);
+        }
+
+        Map<RankingKey, long[]> rankings = new HashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            List<PostCounts> top = tasks.get(i).join();
+            long[] ids = new long[top.size()];
+            for (int j = 0; j < ids.length; j++) {
+                ids[j] = top.get(j).postId();
+            }
+            rankings.put(keys.get(i), ids);
+        }
+        return new Snapshot(rankings);
+    }
+
+    void install(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    record PostCounts(long postId, Post.PostType type, long day, long week, long allTime) {
+
+        long count(Window window) {
+            return switch (window) {
+                case DAY -> day;
+                case WEEK -> week;
+                case ALL_TIME -> allTime;
+            };
+        }
+    }
+
+    record Snapshot(Map<RankingKey, long[]> rankings) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of());
+
+        long[] ranking(Window window, Post.PostType type) {
+            long[] ids = rankings.get(new RankingKey(window, type));
+            return ids != null ? ids : new long[0];
+        }
+    }
+
+    private record RankingKey(Window window, Post.PostType type) {
+    }
+
+    // Top `limit` posts of posts[from, to) for one window and type, most
+    // comments first. Halves are ranked in parallel and their lists merged.
+    private static final class TopTask extends RecursiveTask<List<PostCounts>> {
+        private final PostCounts[] posts;
+        private final int from;
+        private final int to;
+        private final Window window;
+        private final Post.PostType type;
+        private final int limit;
+
+        private TopTask(PostCounts[] posts, int from, int to, Window window, Post.PostType type, int limit) {
+            this.posts = posts;
+            this.from = from;
+            this.to = to;
+            this.window = window;
+            this.type = type;
+            this.limit = limit;
+        }
+
+        @Override
+        protected List<PostCounts> compute() {
+            if (to - from <= LEAF_SIZE) {
+                return rankSlice();
+            }
+            int mid = (from + to) >>> 1;
+            TopTask left = new TopTask(posts, from, mid, window, type, limit);
+            left.fork();
+            List<PostCounts> right = new TopTask(posts, mid, to, window, type, limit).compute();
+            return merge(left.join(), right);
+        }
+
+        private Comparator<PostCounts> order() {
+            return Comparator.comparingLong((PostCounts counts) -> counts.count(window)).reversed()
+                .thenComparing(NEWEST_FIRST);
+        }
+
+        private List<PostCounts> rankSlice() {
+            Comparator<PostCounts> order = order();
+            // Min-heap holding the best `limit` posts seen so far
+            PriorityQueue<PostCounts> best = new PriorityQueue<>(order.reversed());
+            for (int i = from; i < to; i++) {
+                PostCounts counts = posts[i];
+                if (counts.count(window) == 0 || (type != null && counts.type() != type)) {
+                    continue;
+                }
+                best.add(counts);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            PostCounts[] sorted = best.toArray(new PostCounts[0]);
+            Arrays.sort(sorted, order);
+            return Arrays.asList(sorted);
+        }
+
+        private List<PostCounts> merge(List<PostCounts> a, List<PostCounts> b) {
+            Comparator<PostCounts> order = order();
+            List<PostCounts> merged = new ArrayList<>(Math.min(limit, a.size() + b.size()));
+            int i = 0;
+            int j = 0;
+            while (merged.size() < limit && (i < a.size() || j < b.size())) {
+                if (j >= b.size() || (i < a.size() && order.compare(a.get(i), b.get(j)) <= 0)) {
+                    merged.add(a.get(i++));
+                } else {
+                    merged.add(b.get(j++));
+                }
+            }
+            return merged;
+        }
+    }
+}
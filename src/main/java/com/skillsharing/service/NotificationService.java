@@ -1,11 +1,13 @@
 package com.skillsharing.service;
 
+import com.skillsharing.event.PostLikeChangedEvent;
 import com.skillsharing.model.Notification;
 import com.skillsharing.model.Post;
 import com.skillsharing.model.User;
 import com.skillsharing.repository.NotificationRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -20,6 +22,7 @@ import java.time.LocalDateTime;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final UnreadCountCache unreadCountCache;
 
     public Notification createNotification(User recipient, User actor, Post post, String type) {
         Notification notification = new Notification();
@@ -28,7 +31,9 @@ public class NotificationService {
         notification.setPost(post);
         notification.setType(Notification.NotificationType.valueOf(type));
         
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        unreadCountCache.evict(recipient.getId());
+        return saved;
     }
 
     public Notification getNotificationById(Long id) {
@@ -41,7 +46,16 @@ public class NotificationService {
     }
 
     public Long getUnreadCount(User user) {
-        return notificationRepository.countByUserAndReadFalse(user);
+        Long cached = unreadCountCache.get(user.getId());
+        if (cached != null) {
+            return cached;
+        }
+        long generation = unreadCountCache.generation();
+        Long count = notificationRepository.countByUserAndReadFalse(user);
+        if (count != null) {
+            unreadCountCache.put(user.getId(), count, generation);
+        }
+        return count;
     }
 
     public void markAsRead(Long notificationId, Long userId) {
@@ -54,10 +68,12 @@ public class NotificationService {
         
         notification.markAsRead();
         notificationRepository.save(notification);
+        unreadCountCache.evict(userId);
     }
 
     public void markAllAsRead(Long userId) {
         notificationRepository.markAllAsRead(userId);
+        unreadCountCache.evict(userId);
     }
 
     // Scheduled task to clean up old notifications (runs daily at midnight)
@@ -76,6 +92,7 @@ public class NotificationService {
         notification.setType(Notification.NotificationType.FOLLOW);
         
         notificationRepository.save(notification);
+        unreadCountCache.evict(following.getId());
     }
 
     // Create like notification
@@ -86,6 +103,14 @@ public class NotificationService {
         }
     }
 
+    // Only likes that actually added a row get here, so each like notifies once
+    @EventListener
+    public void onPostLikeChanged(PostLikeChangedEvent event) {
+        if (event.liked()) {
+            createLikeNotification(event.user(), event.post());
+        }
+    }
+
     // Create comment notification
     public void createCommentNotification(User commenter, Post post) {
         // Don't create notification if user comments on their own post
@@ -0,0 +1,314 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.dto.PostFacets;
+import com.skillsharing.dto.PostSearchFilter;
+import com.skillsharing.event.PostChangedEvent;
+import com.skillsharing.model.Post;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Facets for post search: post type, learning-plan topic, author and month
+// created. Every facet value keeps a bitset of the posts having it, with
+// post ids used directly as bit positions (they are dense database
+// identities). A filter is the AND across facets of the OR of the selected
+// values' bitsets, so it needs no query. Type and month counts are the size
+// of each value's bitset ANDed with the matches. Topics and authors can have
+// far too many values for that, so unless the matches outnumber the words
+// such a pass would touch, their counts are tallied from the matching posts.
+//
+// Loaded at startup and kept current from PostChangedEvent after each commit.
+@Slf4j
+@Component
+public class PostFacetIndex {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxValues;
+
+    // All of the following are guarded by lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet all = new BitSet();
+    private final Map<Post.PostType, BitSet> byType = new EnumMap<>(Post.PostType.class);
+    private final Map<String, BitSet> byTopic = new HashMap<>();
+    private final Map<Long, BitSet> byAuthor = new HashMap<>();
+    private final TreeMap<YearMonth, BitSet> byMonth = new TreeMap<>();
+    private final Map<Long, Facets> posts = new HashMap<>();
+
+    // Posts changed while the startup load ran; their loaded facets may be stale
+    private final Set<Long> changedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public PostFacetIndex(JdbcTemplate jdbcTemplate, AppProperties appProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxValues = appProperties.getSearch().getFacetMaxValues();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        loading = true;
+        try {
+            Map<Long, List<String>> topics = new HashMap<>();
+            jdbcTemplate.query("SELECT post_id, plan_topics FROM learning_plan_topics", rs -> {
+                topics.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getString(2));
+            });
+            List<Facets> loaded = jdbcTemplate.query(
+                "SELECT id, post_type, user_id, created_at FROM posts",
+                (rs, rowNum) -> {
+                    long postId = rs.getLong(1);
+                    Timestamp createdAt = rs.getTimestamp(4);
+                    return facets(postId, Post.PostType.valueOf(rs.getString(2)), topics.get(postId),
+                        rs.getLong(3), createdAt != null ? createdAt.toLocalDateTime() : null);
+                });
+            lock.writeLock().lock();
+            try {
+                for (Facets facets : loaded) {
+                    if (!changedDuringLoad.contains(facets.postId()) && !posts.containsKey(facets.postId())) {
+                        put(facets);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Loaded facets for {} posts", loaded.size());
+        } finally {
+            loading = false;
+            changedDuringLoad.clear();
+            ready = true;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Post post = event.post();
+        Long postId = post.getId();
+        if (loading) {
+            changedDuringLoad.add(postId);
+        }
+        if (event.type() == PostChangedEvent.Type.DELETED) {
+            update(() -> remove(postId));
+        } else {
+            Facets facets = facets(postId, post.getPostType(), post.getPlanTopics(),
+                post.getUser() != null ? post.getUser().getId() : null, post.getCreatedAt());
+            update(() -> put(facets));
+        }
+    }
+
+    // Posts passing the filter, as a new bitset of post ids
+    public BitSet select(PostSearchFilter filter) {
+        lock.readLock().lock();
+        try {
+            BitSet selected = (BitSet) all.clone();
+            if (filter == null) {
+                return selected;
+            }
+            if (filter.type() != null) {
+                selected.and(union(List.of(filter.type()), byType));
+            }
+            if (filter.topics() != null && !filter.topics().isEmpty()) {
+                selected.and(union(filter.topics(), byTopic));
+            }
+            if (filter.authorId() != null) {
+                selected.and(union(List.of(filter.authorId()), byAuthor));
+            }
+            if (filter.from() != null || filter.to() != null) {
+                YearMonth from = filter.from() != null ? filter.from() : YearMonth.of(0, 1);
+                YearMonth to = filter.to() != null ? filter.to() : YearMonth.of(9999, 12);
+                selected.and(from.isAfter(to) ? new BitSet() : union(byMonth.subMap(from, true, to, true).keySet(), byMonth));
+            }
+            return selected;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Per-value counts of the given posts
+    public PostFacets count(BitSet matches) {
+        lock.readLock().lock();
+        try {
+            Map<Post.PostType, Long> types = new EnumMap<>(Post.PostType.class);
+            counts(byType, matches).forEach(types::put);
+            Map<YearMonth, Long> months = new LinkedHashMap<>();
+            counts(byMonth, matches).forEach(months::put);
+            Map<String, Long> topics;
+            Map<Long, Long> authors;
+            long andWords = (long) (byTopic.size() + byAuthor.size()) * words(all);
+            if (matches.cardinality() <= andWords) {
+                topics = new HashMap<>();
+                authors = new HashMap<>();
+                tally(matches, topics, authors);
+            } else {
+                topics = counts(byTopic, matches);
+                authors = counts(byAuthor, matches);
+            }
+            return new PostFacets(types, top(topics), top(authors), months);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Post ids set in the bitset, highest (newest) first, skipping offset
+    static List<Long> newestFirst(BitSet postIds, long offset, int limit) {
+        List<Long> page = new ArrayList<>(Math.max(0, limit));
+        long skipped = 0;
+        for (int id = postIds.length() - 1; id >= 0 && page.size() < limit; id = postIds.previousSetBit(id - 1)) {
+            if (skipped++ >= offset) {
+                page.add((long) id);
+            }
+        }
+        return page;
+    }
+
+    int indexedPosts() {
+        lock.readLock().lock();
+        try {
+            return posts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void put(Facets facets) {
+        remove(facets.postId());
+        int bit = Math.toIntExact(facets.postId());
+        posts.put(facets.postId(), facets);
+        all.set(bit);
+        if (facets.type() != null) {
+            byType.computeIfAbsent(facets.type(), t -> new BitSet()).set(bit);
+        }
+        for (String topic : facets.topics()) {
+            byTopic.computeIfAbsent(topic, t -> new BitSet()).set(bit);
+        }
+        if (facets.authorId() != null) {
+            byAuthor.computeIfAbsent(facets.authorId(), a -> new BitSet()).set(bit);
+        }
+        byMonth.computeIfAbsent(facets.month(), m -> new BitSet()).set(bit);
+    }
+
+    // Caller holds the write lock
+    private void remove(Long postId) {
+        Facets old = posts.remove(postId);
+        if (old == null) {
+            return;
+        }
+        int bit = Math.toIntExact(postId);
+        all.clear(bit);
+        clear(byType, old.type(), bit);
+        for (String topic : old.topics()) {
+            clear(byTopic, topic, bit);
+        }
+        clear(byAuthor, old.authorId(), bit);
+        clear(byMonth, old.month(), bit);
+    }
+
+    private static <K> void clear(Map<K, BitSet> facet, K value, int bit) {
+        BitSet bits = value != null ? facet.get(value) : null;
+        if (bits != null) {
+            bits.clear(bit);
+            if (bits.isEmpty()) {
+                facet.remove(value);
+            }
+        }
+    }
+
+    private static <K> BitSet union(Collection<K> values, Map<K, BitSet> facet) {
+        BitSet union = new BitSet();
+        for (K value : values) {
+            BitSet bits = facet.get(value);
+            if (bits != null) {
+                union.or(bits);
+            }
+        }
+        return union;
+    }
+
+    // Caller holds the read lock
+    private void tally(BitSet matches, Map<String, Long> topics, Map<Long, Long> authors) {
+        for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+            Facets facets = posts.get((long) id);
+            if (facets == null) {
+                continue;
+            }
+            for (String topic : facets.topics()) {
+                topics.merge(topic, 1L, Long::sum);
+            }
+            if (facets.authorId() != null) {
+                authors.merge(facets.authorId(), 1L, Long::sum);
+            }
+        }
+    }
+
+    private static long words(BitSet bits) {
+        return (bits.length() + 63) / 64;
+    }
+
+    private static <K> Map<K, Long> counts(Map<K, BitSet> facet, BitSet matches) {
+        Map<K, Long> counts = new LinkedHashMap<>();
+        BitSet scratch = new BitSet();
+        facet.forEach((value, bits) -> {
+            scratch.clear();
+            scratch.or(bits);
+            scratch.and(matches);
+            int count = scratch.cardinality();
+            if (count > 0) {
+                counts.put(value, (long) count);
+            }
+        });
+        return counts;
+    }
+
+    // The maxValues most frequent values, most frequent first
+    private <K> Map<K, Long> top(Map<K, Long> counts) {
+        Map<K, Long> top = new LinkedHashMap<>();
+        counts.entrySet().stream()
+            .sorted(Map.Entry.<K, Long>comparingByValue().reversed())
+            .limit(maxValues)
+            .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    private static Facets facets(Long postId, Post.PostType type, List<String> topics, Long authorId,
+                                 LocalDateTime createdAt) {
+        return new Facets(postId, type, topics != null ? topics.stream().distinct().toList() : List.of(), authorId,
+            YearMonth.from(createdAt != null ? createdAt : LocalDateTime.now()));
+    }
+
+    private record Facets(Long postId, Post.PostType type, List<String> topics, Long authorId, YearMonth month) {
+    }
+}
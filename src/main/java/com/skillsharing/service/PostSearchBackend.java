@@ -0,0 +1,21 @@
+package com.skillsharing.service;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+// Search behind PostService.searchPosts. The implementation is picked with
+// app.search.postBackend: bm25 (PostSearchIndex, ranked whole-word matches)
+// or trigram (TrigramPostSearch, substring matches, newest first).
+public interface PostSearchBackend {
+
+    // False while the backend is still loading; callers fall back to the database
+    boolean isReady();
+
+    default SearchHits search(String query, long offset, int limit) {
+        return search(query, postId -> true, postId -> { }, offset, limit);
+    }
+
+    // Only posts accepted by filter are considered, before any scoring, and
+    // every match is passed to onMatch (used for facet counts)
+    SearchHits search(String query, LongPredicate filter, LongConsumer onMatch, long offset, int limit);
+}
@@ -0,0 +1,381 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.config.AsyncConfig;
+import com.skillsharing.event.PostChangedEvent;
+import com.skillsharing.event.UserChangedEvent;
+import com.skillsharing.model.Post;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+// In-memory full-text index over posts, scored with BM25. Each post is one
+// document made of its description, plan title and topics and its author's
+// name; title and topic terms count titleBoost times, author terms
+// authorBoost times. Every term maps to a posting list of (post id, term
+// frequency, document length) sorted by post id.
+//
+// The index is built at startup, with documents analyzed in parallel on the
+// ranking pool, and kept current from PostChangedEvent after each commit.
+// Until the first build finishes isReady() is false and callers fall back
+// to the database. This is the default PostSearchBackend.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.search", name = "postBackend", havingValue = "bm25", matchIfMissing = true)
+public class PostSearchIndex implements PostSearchBackend {
+
+    private static final String TEXT_SQL =
+        "SELECT p.id, p.description, p.plan_title, u.name FROM posts p JOIN users u ON u.id = p.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ForkJoinPool pool;
+    private final double k1;
+    private final double b;
+    private final float titleBoost;
+    private final float authorBoost;
+
+    // All of the following are guarded by lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Postings> postings = new HashMap<>();
+    private Map<Long, Document> documents = new HashMap<>();
+    private double totalLength;
+
+    // Posts changed while the startup build ran; their built documents may be stale
+    private final Set<Long> changedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean building;
+    private volatile boolean ready;
+
+    public PostSearchIndex(JdbcTemplate jdbcTemplate,
+                           @Qualifier(AsyncConfig.RANKING_POOL) ForkJoinPool pool,
+                           AppProperties appProperties) {
+        AppProperties.Search search = appProperties.getSearch();
+        this.jdbcTemplate = jdbcTemplate;
+        this.pool = pool;
+        this.k1 = search.getBm25K1();
+        this.b = search.getBm25B();
+        this.titleBoost = (float) search.getTitleBoost();
+        this.authorBoost = (float) search.getAuthorBoost();
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        building = true;
+        try {
+            long started = System.nanoTime();
+            List<PostText> texts = loadTexts();
+            List<Map.Entry<Long, Document>> built = pool.submit(() -> texts.parallelStream()
+                .map(text -> Map.entry(text.postId(), analyze(text)))
+                .sorted(Map.Entry.comparingByKey())
+                .toList()).join();
+            install(built);
+            log.info("Indexed {} posts for search in {} ms", built.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            building = false;
+            changedDuringBuild.clear();
+            ready = true;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Long postId = event.post().getId();
+        if (building) {
+            changedDuringBuild.add(postId);
+        }
+        if (event.type() == PostChangedEvent.Type.DELETED) {
+            remove(postId);
+        } else {
+            // The committing session is still open, so lazy associations load
+            Post post = event.post();
+            index(postId, analyze(new PostText(postId, post.getDescription(), post.getPlanTitle(),
+                post.getPlanTopics(), post.getUser() != null ? post.getUser().getName() : null)));
+        }
+    }
+
+    // The author's name is part of each of their posts' documents
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.renamed()) {
+            return;
+        }
+        for (PostText text : loadTexts(event.user().getId())) {
+            if (building) {
+                changedDuringBuild.add(text.postId());
+            }
+            index(text.postId(), analyze(text));
+        }
+    }
+
+    // Posts matching any query term, best BM25 score first; the page is
+    // [offset, offset + limit) of the ranking and total counts every match.
+    // Posts rejected by filter are skipped while walking the posting lists.
+    @Override
+    public SearchHits search(String query, LongPredicate filter, LongConsumer onMatch, long offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.terms(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return SearchHits.EMPTY;
+        }
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount > 0 ? totalLength / documentCount : 0;
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log1p((documentCount - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    if (!filter.test(list.postIds[i])) {
+                        continue;
+                    }
+                    double tf = list.frequencies[i];
+                    double norm = k1 * (1 - b + b * list.lengths[i] / averageLength);
+                    scores.merge(list.postIds[i], idf * tf * (k1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        scores.keySet().forEach(onMatch::accept);
+        return new SearchHits(top(scores, offset, limit), scores.size());
+    }
+
+    int indexedPosts() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void index(Long postId, Document document) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+            documents.put(postId, document);
+            totalLength += document.length();
+            document.frequencies().forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new Postings()).put(postId, frequency, document.length()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Document analyze(PostText text) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float[] length = {0};
+        addTerms(frequencies, length, text.description(), 1f);
+        addTerms(frequencies, length, text.planTitle(), titleBoost);
+        if (text.planTopics() != null) {
+            for (String topic : text.planTopics()) {
+                addTerms(frequencies, length, topic, titleBoost);
+            }
+        }
+        addTerms(frequencies, length, text.author(), authorBoost);
+        return new Document(frequencies, length[0]);
+    }
+
+    private static void addTerms(Map<String, Float> frequencies, float[] length, String text, float weight) {
+        for (String term : TextAnalyzer.terms(text)) {
+            frequencies.merge(term, weight, Float::sum);
+            length[0] += weight;
+        }
+    }
+
+    private List<PostText> loadTexts() {
+        Map<Long, List<String>> topics = new HashMap<>();
+        jdbcTemplate.query("SELECT post_id, plan_topics FROM learning_plan_topics", rs -> {
+            topics.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getString(2));
+        });
+        return jdbcTemplate.query(TEXT_SQL, textMapper(topics));
+    }
+
+    // Texts of one author's posts
+    private List<PostText> loadTexts(Long userId) {
+        Map<Long, List<String>> topics = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT t.post_id, t.plan_topics FROM learning_plan_topics t JOIN posts p ON p.id = t.post_id " +
+            "WHERE p.user_id = ?",
+            rs -> {
+                topics.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getString(2));
+            },
+            userId);
+        return jdbcTemplate.query(TEXT_SQL + " WHERE p.user_id = ?", textMapper(topics), userId);
+    }
+
+    private static RowMapper<PostText> textMapper(Map<Long, List<String>> topics) {
+        return (rs, rowNum) -> {
+            long postId = rs.getLong(1);
+            return new PostText(postId, rs.getString(2), rs.getString(3),
+                topics.getOrDefault(postId, List.of()), rs.getString(4));
+        };
+    }
+
+    private void install(List<Map.Entry<Long, Document>> built) {
+        lock.writeLock().lock();
+        try {
+            if (documents.isEmpty() && changedDuringBuild.isEmpty()) {
+                // Common case: nothing changed during the build, so the posting
+                // lists can be appended in post id order
+                Map<String, Postings> newPostings = new HashMap<>();
+                Map<Long, Document> newDocuments = new HashMap<>();
+                double newTotalLength = 0;
+                for (Map.Entry<Long, Document> entry : built) {
+                    Document document = entry.getValue();
+                    newDocuments.put(entry.getKey(), document);
+                    newTotalLength += document.length();
+                    document.frequencies().forEach((term, frequency) -> newPostings
+                        .computeIfAbsent(term, t -> new Postings()).append(entry.getKey(), frequency, document.length()));
+                }
+                postings = newPostings;
+                documents = newDocuments;
+                totalLength = newTotalLength;
+                return;
+            }
+            for (Map.Entry<Long, Document> entry : built) {
+                if (!changedDuringBuild.contains(entry.getKey()) && !documents.containsKey(entry.getKey())) {
+                    index(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long postId) {
+        Document old = documents.remove(postId);
+        if (old == null) {
+            return;
+        }
+        totalLength -= old.length();
+        for (String term : old.frequencies().keySet()) {
+            Postings list = postings.get(term);
+            if (list != null && list.remove(postId) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static List<Long> top(Map<Long, Double> scores, long offset, int limit) {
+        long wanted = offset + limit;
+        if (scores.isEmpty() || offset >= scores.size()) {
+            return List.of();
+        }
+        Comparator<Map.Entry<Long, Double>> best = Map.Entry.<Long, Double>comparingByValue().reversed()
+            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+        // Min-heap of the best offset + limit matches
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(best.reversed());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            heap.add(entry);
+            if (heap.size() > wanted) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(heap);
+        ranked.sort(best);
+        List<Long> ids = new ArrayList<>(limit);
+        for (int i = (int) offset; i < ranked.size(); i++) {
+            ids.add(ranked.get(i).getKey());
+        }
+        return ids;
+    }
+
+    record PostText(Long postId, String description, String planTitle, List<String> planTopics, String author) {
+    }
+
+    record Document(Map<String, Float> frequencies, float length) {
+    }
+
+    // Posting list of one term, sorted by post id
+    private static final class Postings {
+        private long[] postIds = new long[4];
+        private float[] frequencies = new float[4];
+        private float[] lengths = new float[4];
+        private int size;
+
+        // Adds a post with a higher id than any in the list
+        private void append(long postId, float frequency, float length) {
+            insertAt(size, postId, frequency, length);
+        }
+
+        private void put(long postId, float frequency, float length) {
+            int index = Arrays.binarySearch(postIds, 0, size, postId);
+            if (index >= 0) {
+                frequencies[index] = frequency;
+                lengths[index] = length;
+            } else {
+                insertAt(-index - 1, postId, frequency, length);
+            }
+        }
+
+        private boolean remove(long postId) {
+            int index = Arrays.binarySearch(postIds, 0, size, postId);
+            if (index < 0) {
+                return false;
+            }
+            int tail = size - index - 1;
+            System.arraycopy(postIds, index + 1, postIds, index, tail);
+            System.arraycopy(frequencies, index + 1, frequencies, index, tail);
+            System.arraycopy(lengths, index + 1, lengths, index, tail);
+            size--;
+            return true;
+        }
+
+        private void insertAt(int index, long postId, float frequency, float length) {
+            if (size == postIds.length) {
+                int capacity = size * 2;
+                postIds = Arrays.copyOf(postIds, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            int tail = size - index;
+            System.arraycopy(postIds, index, postIds, index + 1, tail);
+            System.arraycopy(frequencies, index, frequencies, index + 1, tail);
+            System.arraycopy(lengths, index, lengths, index + 1, tail);
+            postIds[index] = postId;
+            frequencies[index] = frequency;
+            lengths[index] = length;
+            size++;
+        }
+    }
+}
@@ -1,17 +1,34 @@
 package com.skillsharing.service;
 
+import com.skillsharing.dto.CursorPage;
+import com.skillsharing.dto.FacetedPage;
+import com.skillsharing.dto.KeysetCursor;
+import com.skillsharing.dto.LikeStatus;
+import com.skillsharing.dto.PostEngagement;
+import com.skillsharing.dto.PostFacets;
+import com.skillsharing.dto.PostSearchFilter;
+import com.skillsharing.event.PostChangedEvent;
+import com.skillsharing.exception.BadRequestException;
+import com.skillsharing.exception.ServiceUnavailableException;
 import com.skillsharing.model.Post;
 import com.skillsharing.model.User;
 import com.skillsharing.repository.PostRepository;
 import com.skillsharing.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +38,17 @@ public class PostService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final FeedService feedService;
+    private final EngagementCounterService engagementCounterService;
+    private final LikedPostIndex likedPostIndex;
+    private final LikePipeline likePipeline;
+    private final TrendingService trendingService;
+    private final HotPostsService hotPostsService;
+    private final MostDiscussedService mostDiscussedService;
+    private final PostSearchBackend postSearchBackend;
+    private final PostFacetIndex postFacetIndex;
+    private final SearchResultCache searchResultCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Post createPost(Post post, Long userId) {
         User user = userRepository.findById(userId)
@@ -32,7 +60,10 @@ public class PostService {
         }
         
         post.setUser(user);
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        feedService.fanOut(savedPost);
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost, PostChangedEvent.Type.CREATED));
+        return savedPost;
     }
 
     public Post getPostById(Long id) {
@@ -40,6 +71,13 @@ public class PostService {
             .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + id));
     }
 
+    // A post opened by a client; counts as a view for the hot posts list
+    public Post viewPost(Long id) {
+        Post post = getPostById(id);
+        hotPostsService.recordView(id);
+        return post;
+    }
+
     public Post updatePost(Long postId, Post postDetails, Long userId) {
         Post post = getPostById(postId);
         
@@ -72,7 +110,9 @@ public class PostService {
             post.setProgressPercentage(postDetails.getProgressPercentage());
         }
         
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost, PostChangedEvent.Type.UPDATED));
+        return savedPost;
     }
 
     public void deletePost(Long postId, Long userId) {
@@ -83,37 +123,34 @@ public class PostService {
             throw new IllegalArgumentException("User does not own this post");
         }
         
+        feedService.removePost(postId);
+        trendingService.forget(postId);
         postRepository.delete(post);
+        eventPublisher.publishEvent(new PostChangedEvent(post, PostChangedEvent.Type.DELETED));
     }
 
-    public void likePost(Long postId, Long userId) {
-        Post post = getPostById(postId);
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
-        
-        if (!postRepository.hasUserLikedPost(postId, userId)) {
-            post.getLikes().add(user);
-            postRepository.save(post);
-            
-            // Create notification for post owner
-            if (!post.getUser().getId().equals(userId)) {
-                notificationService.createNotification(
-                    post.getUser(),
-                    user,
-                    post,
-                    "LIKE"
-                );
-            }
-        }
+    // Likes are written asynchronously by LikePipeline; the returned state is
+    // what the caller asked for. Liking twice is a no-op, and only a new like
+    // notifies the post owner (see NotificationService.onPostLikeChanged).
+    public LikeStatus likePost(Long postId, Long userId) {
+        requirePostAndUser(postId, userId);
+        likePipeline.submit(postId, userId, true);
+        return new LikeStatus(postId, true);
     }
 
-    public void unlikePost(Long postId, Long userId) {
-        Post post = getPostById(postId);
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
-        
-        post.getLikes().remove(user);
-        postRepository.save(post);
+    public LikeStatus unlikePost(Long postId, Long userId) {
+        requirePostAndUser(postId, userId);
+        likePipeline.submit(postId, userId, false);
+        return new LikeStatus(postId, false);
+    }
+
+    private void requirePostAndUser(Long postId, Long userId) {
+        if (!postRepository.existsById(postId)) {
+            throw new EntityNotFoundException("Post not found with id: " + postId);
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("User not found with id: " + userId);
+        }
     }
 
     public Page<Post> getUserPosts(Long userId, Pageable pageable) {
@@ -122,31 +159,124 @@ public class PostService {
         return postRepository.findByUserOrderByCreatedAtDesc(user, pageable);
     }
 
+    public CursorPage<Post> scrollUserPosts(Long userId, KeysetCursor cursor, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("User not found with id: " + userId);
+        }
+        List<Post> rows = postRepository.findByUserIdBefore(
+            userId, cursor.createdAt(), cursor.id(), PageRequest.of(0, size + 1));
+        return CursorPage.of(rows, size, FeedService::cursorOf);
+    }
+
     public Page<Post> getFollowingPosts(Long userId, Pageable pageable) {
-        return postRepository.findFollowingUsersPosts(userId, pageable);
+        return feedService.getFeed(userId, pageable);
     }
 
-    public Page<Post> searchPosts(String keyword, Pageable pageable) {
-        return postRepository.searchPosts(keyword, pageable);
+    public List<Post> getRankedFollowingPosts(Long userId, int size) {
+        return feedService.getRankedFeed(userId, size);
+    }
+
+    public CursorPage<Post> scrollFollowingPosts(Long userId, KeysetCursor cursor, int size) {
+        return feedService.scrollFeed(userId, cursor, size);
+    }
+
+    public int rebuildFeed(Long userId) {
+        return feedService.rebuildFeed(userId);
+    }
+
+    // Keyword search narrowed by facet filters, with facet counts over every
+    // match. Without a keyword the filtered posts are listed newest first.
+    public FacetedPage<Post> searchPosts(String keyword, PostSearchFilter filter, Pageable pageable) {
+        boolean browse = keyword == null || keyword.isBlank();
+        if (!postFacetIndex.isReady() || (!browse && !postSearchBackend.isReady())) {
+            // The indexes are still loading at startup; only a plain keyword
+            // search can be answered from the database meanwhile
+            if (browse || !filter.isEmpty()) {
+                throw new ServiceUnavailableException("Search is starting up, please retry shortly");
+            }
+            Page<Post> page = postRepository.searchPosts(keyword, pageable);
+            return new FacetedPage<>(page.getContent(), pageable, page.getTotalElements(), PostFacets.EMPTY);
+        }
+        PostSearchResult result = searchResultCache.get(SearchResultCache.Scope.POSTS, keyword,
+            List.of(filter, pageable.getOffset(), pageable.getPageSize()),
+            () -> findPostIds(browse ? null : keyword, filter, pageable));
+        List<Post> posts = result.ids().isEmpty() ? List.of() : postRepository.findAllByIdInOrder(result.ids());
+        return new FacetedPage<>(posts, pageable, result.total(), result.facets());
+    }
+
+    private PostSearchResult findPostIds(String keyword, PostSearchFilter filter, Pageable pageable) {
+        BitSet candidates = postFacetIndex.select(filter);
+        if (keyword == null) {
+            List<Long> ids = PostFacetIndex.newestFirst(candidates, pageable.getOffset(), pageable.getPageSize());
+            return new PostSearchResult(ids, candidates.cardinality(), postFacetIndex.count(candidates));
+        }
+        BitSet matches = new BitSet();
+        SearchHits hits = postSearchBackend.search(keyword, postId -> candidates.get((int) postId),
+            postId -> matches.set((int) postId), pageable.getOffset(), pageable.getPageSize());
+        return new PostSearchResult(hits.ids(), hits.total(), postFacetIndex.count(matches));
     }
 
     public List<Post> getActiveLearningPlans() {
         return postRepository.findActiveLearningPlans();
     }
 
-    public Page<Post> getMostLikedPosts(Pageable pageable) {
-        return postRepository.findMostLikedPosts(pageable);
+    // Served from the in-memory leaderboard, see TrendingService
+    public Page<Post> getTrendingPosts(Pageable pageable) {
+        return trendingService.getTrendingPosts(pageable);
     }
 
-    public Page<Post> getMostCommentedPosts(Pageable pageable) {
-        return postRepository.findMostCommentedPosts(pageable);
+    // Served from the latest background ranking, see MostDiscussedService
+    public Page<Post> getMostCommentedPosts(MostDiscussedService.Window window, Post.PostType type,
+                                            Pageable pageable) {
+        return mostDiscussedService.getMostDiscussed(window, type, pageable);
+    }
+
+    public List<Post> getHotPosts(int size) {
+        return hotPostsService.getHotPosts(size);
     }
 
     public Long getLikesCount(Long postId) {
-        return postRepository.countLikesByPostId(postId);
+        return engagementCounterService.getLikesCount(postId);
+    }
+
+    // Counts and the caller's has-liked flag for a page of posts: one counts
+    // query plus in-memory lookups. userId may be null for anonymous callers.
+    public List<PostEngagement> getEngagement(List<Long> postIds, Long userId) {
+        if (postIds.size() > CursorPage.MAX_SIZE) {
+            throw new BadRequestException("At most " + CursorPage.MAX_SIZE + " post ids can be requested at once");
+        }
+        List<Long> ids = postIds.stream().distinct().toList();
+        Map<Long, EngagementCounterService.Counts> counts = engagementCounterService.getCounts(ids);
+        Set<Long> liked = userId == null || counts.isEmpty()
+            ? Set.of()
+            : likedPostIndex.likedAmong(userId, counts.keySet());
+
+        List<PostEngagement> result = new ArrayList<>(counts.size());
+        for (Long id : ids) {
+            EngagementCounterService.Counts postCounts = counts.get(id);
+            if (postCounts != null) {
+                result.add(new PostEngagement(id, postCounts.likes(), postCounts.comments(),
+                    hasLiked(id, userId, liked)));
+            }
+        }
+        return result;
     }
 
     public boolean hasUserLikedPost(Long postId, Long userId) {
-        return postRepository.hasUserLikedPost(postId, userId);
+        Boolean pending = likePipeline.pendingState(postId, userId);
+        return pending != null ? pending : likedPostIndex.hasLiked(userId, postId);
+    }
+
+    // A like or unlike not yet written by the pipeline wins over the index
+    private boolean hasLiked(Long postId, Long userId, Set<Long> likedPostIds) {
+        if (userId == null) {
+            return false;
+        }
+        Boolean pending = likePipeline.pendingState(postId, userId);
+        return pending != null ? pending : likedPostIds.contains(postId);
+    }
+
+    // Cached by SearchResultCache; posts are loaded fresh for every request
+    private record PostSearchResult(List<Long> ids, long total, PostFacets facets) {
     }
 }
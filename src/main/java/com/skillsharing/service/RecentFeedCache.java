@@ -0,0 +1,227 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Keeps the newest post ids of each active user's feed in a primitive ring
+// buffer, so the first feed page can be served without touching the feed
+// tables. Entries are evicted least-recently-used once the estimated heap use
+// goes over app.feed.cacheMaxBytes.
+@Component
+public class RecentFeedCache {
+
+    // Rough per-entry cost besides the id arrays: map node, entry object, array headers
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+
+    private final int capacity;
+    private final long maxBytes;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes;
+
+    // Pulled (high-follower) authors are never pushed into entries. Instead we
+    // remember when they last posted and treat entries loaded before that as stale.
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Long, Long> pulledAuthorPostVersions = new ConcurrentHashMap<>();
+    // Version of the latest fan-out. A load that started before it may have
+    // missed the pushed post and is not stored; the next read loads again.
+    private long lastFanOutVersion;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RecentFeedCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.capacity = appProperties.getFeed().getCacheEntryCapacity();
+        this.maxBytes = appProperties.getFeed().getCacheMaxBytes();
+
+        FunctionCounter.builder("feed.cache.requests", hits, LongAdder::sum)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("feed.cache.requests", misses, LongAdder::sum)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        FunctionCounter.builder("feed.cache.evictions", evictions, LongAdder::sum)
+            .register(meterRegistry);
+        Gauge.builder("feed.cache.bytes", this, RecentFeedCache::usedBytes)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("feed.cache.entries", this, RecentFeedCache::size)
+            .register(meterRegistry);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // Returns the user's newest `limit` post ids, or null when the cache cannot answer
+    public synchronized CachedFeed get(Long userId, int limit) {
+        Entry entry = entries.get(userId);
+        if (entry == null || limit > capacity || isStale(entry) || (entry.size < limit && !entry.complete)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return new CachedFeed(entry.newest(limit), entry.total);
+    }
+
+    // True when get() would currently be answered for the first page
+    public synchronized boolean contains(Long userId) {
+        Entry entry = entries.get(userId);
+        return entry != null && !isStale(entry);
+    }
+
+    // Read before loading a feed and pass to put(), so a post fanned out or a
+    // pulled author posting while the load runs still keeps the load from being served
+    public long currentVersion() {
+        return version.get();
+    }
+
+    // Store the head of a freshly loaded feed. `newestFirstIds` holds at most
+    // `capacity` ids; `total` is the full feed length at load time.
+    public synchronized void put(Long userId, long[] newestFirstIds, long total,
+                                 long[] pulledAuthorIds, long loadedVersion) {
+        if (loadedVersion < lastFanOutVersion) {
+            return;
+        }
+        Entry entry = new Entry(capacity, pulledAuthorIds, loadedVersion);
+        for (int i = Math.min(newestFirstIds.length, capacity) - 1; i >= 0; i--) {
+            entry.push(newestFirstIds[i]);
+        }
+        entry.total = total;
+        entry.complete = newestFirstIds.length < capacity;
+
+        Entry previous = entries.put(userId, entry);
+        if (previous != null) {
+            usedBytes -= previous.bytes();
+        }
+        usedBytes += entry.bytes();
+        evictToBudget();
+    }
+
+    // Call after a fan-out commits, before pushing the post with pushIfPresent()
+    public synchronized void markFannedOut() {
+        lastFanOutVersion = version.incrementAndGet();
+    }
+
+    // Prepend a new post to the user's cached feed, if the user is cached and
+    // the entry was not loaded after the post was already committed
+    public synchronized void pushIfPresent(Long userId, long postId) {
+        Entry entry = entries.get(userId);
+        if (entry != null && !entry.contains(postId)) {
+            entry.push(postId);
+            entry.total++;
+        }
+    }
+
+    public void markPulledAuthorPosted(Long authorId) {
+        pulledAuthorPostVersions.put(authorId, version.incrementAndGet());
+    }
+
+    public synchronized void evict(Long userId) {
+        Entry removed = entries.remove(userId);
+        if (removed != null) {
+            usedBytes -= removed.bytes();
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private boolean isStale(Entry entry) {
+        for (long authorId : entry.pulledAuthorIds) {
+            if (pulledAuthorPostVersions.getOrDefault(authorId, 0L) > entry.loadedVersion) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evictToBudget() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            usedBytes -= eldest.next().bytes();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    public record CachedFeed(long[] postIds, long total) {
+    }
+
+    // Fixed-size ring of post ids; `head` is the slot of the newest id
+    private static final class Entry {
+        private final long[] ids;
+        private final long[] pulledAuthorIds;
+        private final long loadedVersion;
+        private int head;
+        private int size;
+        private long total;
+        // True when the ring holds the whole feed, so short reads are still hits
+        private boolean complete;
+
+        private Entry(int capacity, long[] pulledAuthorIds, long loadedVersion) {
+            this.ids = new long[capacity];
+            this.pulledAuthorIds = pulledAuthorIds;
+            this.loadedVersion = loadedVersion;
+        }
+
+        private void push(long postId) {
+            head = (head - 1 + ids.length) % ids.length;
+            ids[head] = postId;
+            if (size < ids.length) {
+                size++;
+            }
+        }
+
+        private boolean contains(long postId) {
+            for (int i = 0; i < size; i++) {
+                if (ids[(head + i) % ids.length] == postId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private long[] newest(int limit) {
+            int count = Math.min(limit, size);
+            long[] result = new long[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = ids[(head + i) % ids.length];
+            }
+            return result;
+        }
+
+        private long bytes() {
+            return ENTRY_OVERHEAD_BYTES + 8L * ids.length + 8L * pulledAuthorIds.length;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.skillsharing.service;
+
+import java.util.List;
+
+// One page of search results: the ids in result order, and how many
+// results the query has in total
+public record SearchHits(List<Long> ids, long total) {
+
+    static final SearchHits EMPTY = new SearchHits(List.of(), 0);
+}
@@ -0,0 +1,205 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.event.PostChangedEvent;
+import com.skillsharing.event.UserChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Results of recent post and user searches, keyed by normalized query plus
+// paging and filters. Entries expire after app.search.cacheTtlSeconds and
+// are evicted least-recently-used beyond app.search.cacheMaxEntries.
+//
+// Concurrent misses on the same key share one load. Any post change drops
+// every post search, any user change every user search: one write can move
+// a post into or out of any query. A load that started before such a change
+// is returned to its callers but not cached.
+@Component
+public class SearchResultCache {
+
+    public enum Scope {
+        POSTS,
+        USERS
+    }
+
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // Keyed by generation too, so callers arriving after a change start a fresh load
+    private final Map<Load, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+    private final Map<Scope, AtomicLong> generations = new EnumMap<>(Scope.class);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SearchResultCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(appProperties.getSearch().getCacheTtlSeconds());
+        this.maxEntries = appProperties.getSearch().getCacheMaxEntries();
+        for (Scope scope : Scope.values()) {
+            generations.put(scope, new AtomicLong());
+        }
+
+        FunctionCounter.builder("search.cache.requests", hits, LongAdder::sum)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("search.cache.requests", misses, LongAdder::sum)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        // Misses answered by another caller's load instead of their own
+        FunctionCounter.builder("search.cache.coalesced", coalesced, LongAdder::sum)
+            .register(meterRegistry);
+        FunctionCounter.builder("search.cache.evictions", evictions, LongAdder::sum)
+            .register(meterRegistry);
+        Gauge.builder("search.cache.entries", this, SearchResultCache::size)
+            .register(meterRegistry);
+    }
+
+    // The cached result for the query, or the loader's result once it has run
+    // in this thread or in a concurrent caller with the same key
+    public <V> V get(Scope scope, String query, Object params, Supplier<V> loader) {
+        return get(scope, query, params, loader, System.nanoTime());
+    }
+
+    @SuppressWarnings("unchecked")
+    <V> V get(Scope scope, String query, Object params, Supplier<V> loader, long nowNanos) {
+        Key key = new Key(scope, normalize(query), params);
+        Object cached = lookup(key, nowNanos);
+        if (cached != null) {
+            hits.increment();
+            return (V) cached;
+        }
+        misses.increment();
+
+        long generation = generations.get(scope).get();
+        Load inFlight = new Load(key, generation);
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> running = loading.putIfAbsent(inFlight, load);
+        if (running != null) {
+            coalesced.increment();
+            return (V) await(running);
+        }
+        try {
+            V value = loader.get();
+            store(key, value, generation, nowNanos);
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(inFlight, load);
+        }
+    }
+
+    // After completion rather than after commit: it runs once every afterCommit
+    // callback has finished, so the in-memory search indexes already hold the
+    // change when the entries go. A rolled-back write costs a needless drop.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        invalidate(Scope.POSTS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(Scope.USERS);
+        if (event.renamed()) {
+            // Post search matches author names too
+            invalidate(Scope.POSTS);
+        }
+    }
+
+    public synchronized void invalidate(Scope scope) {
+        generations.get(scope).incrementAndGet();
+        entries.keySet().removeIf(key -> key.scope() == scope);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    // Lowercase with runs of whitespace collapsed; every backend ignores
+    // case, but not all of them ignore accents
+    static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        return query.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private synchronized Object lookup(Key key, long nowNanos) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (nowNanos - entry.loadedAt() > ttlNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    private synchronized void store(Key key, Object value, long generation, long nowNanos) {
+        if (value == null || generations.get(key.scope()).get() != generation) {
+            return;
+        }
+        entries.put(key, new Entry(value, nowNanos));
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(Scope scope, String query, Object params) {
+    }
+
+    private record Entry(Object value, long loadedAt) {
+    }
+
+    private record Load(Key key, long generation) {
+    }
+}
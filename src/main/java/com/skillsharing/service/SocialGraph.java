@@ -0,0 +1,435 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.config.AsyncConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// The follow graph in memory, so follower lists, counts and membership need
+// no SQL. Both directions are kept in compressed sparse row form: the sorted
+// user ids that have edges, an offsets array, and one flat array of
+// neighbour ids, sorted within each user's row.
+//
+// Follows and unfollows are applied after commit to a small overlay that
+// takes precedence over the arrays, and folded into new arrays once the
+// overlay reaches app.graph.compactionThreshold edits, on the ranking pool
+// so the committing request does not wait, or on a timer. The new arrays
+// are built outside the lock from a copy of the overlay; edits arriving
+// meanwhile stay in the overlay, which keeps only entries that still differ
+// from the arrays once the new ones are installed. Until the first load
+// finishes isReady() is false and callers use the database.
+@Slf4j
+@Component
+public class SocialGraph {
+
+    private static final long[] NONE = new long[0];
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ForkJoinPool pool;
+    private final int compactionThreshold;
+
+    // All of the following are guarded by lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Csr followers = Csr.EMPTY;
+    private Csr following = Csr.EMPTY;
+    // Followed id -> follower id -> edge present; and the same edits by follower
+    private final Map<Long, Map<Long, Boolean>> followerEdits = new HashMap<>();
+    private final Map<Long, Map<Long, Boolean>> followingEdits = new HashMap<>();
+    private int editCount;
+    // Set until the first load and while a compaction builds new arrays:
+    // edits are then kept even when they agree with the current arrays, as
+    // the new ones may not
+    private boolean compacting = true;
+
+    private final Object compactionLock = new Object();
+    // Set while a threshold compaction is waiting for or running on the pool
+    private final AtomicBoolean compactionQueued = new AtomicBoolean();
+    private volatile boolean ready;
+
+    public SocialGraph(JdbcTemplate jdbcTemplate, @Qualifier(AsyncConfig.RANKING_POOL) ForkJoinPool pool,
+                       AppProperties appProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pool = pool;
+        this.compactionThreshold = appProperties.getGraph().getCompactionThreshold();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Edits committed while this runs are kept in the overlay, which agrees
+    // with or overrides what the query read
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            compacting = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        EdgeList edges = new EdgeList();
+        jdbcTemplate.query("SELECT follower_id, following_id FROM user_followers",
+            rs -> {
+                edges.add(rs.getLong(1), rs.getLong(2));
+            });
+        Csr newFollowers = Csr.build(edges.targets, edges.sources, edges.size);
+        Csr newFollowing = Csr.build(edges.sources, edges.targets, edges.size);
+        lock.writeLock().lock();
+        try {
+            install(newFollowers, newFollowing);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Loaded {} follow edges in {} ms", edges.size, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public void recordFollow(Long followerId, Long followedId) {
+        AfterCommit.run(() -> edit(followerId, followedId, true));
+    }
+
+    public void recordUnfollow(Long followerId, Long followedId) {
+        AfterCommit.run(() -> edit(followerId, followedId, false));
+    }
+
+    public boolean follows(long followerId, long followedId) {
+        lock.readLock().lock();
+        try {
+            return follows(followingEdits.get(followerId), followerId, followedId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The subset of userIds that followerId follows, under one read lock
+    public Set<Long> followedAmong(long followerId, Collection<Long> userIds) {
+        Set<Long> result = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Boolean> edits = followingEdits.get(followerId);
+            for (Long userId : userIds) {
+                if (follows(edits, followerId, userId)) {
+                    result.add(userId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // Sorted ids of the users following userId
+    public long[] followerIds(long userId) {
+        return neighbours(userId, true);
+    }
+
+    // Sorted ids of the users userId follows
+    public long[] followingIds(long userId) {
+        return neighbours(userId, false);
+    }
+
+    public int followerCount(long userId) {
+        return degree(userId, true);
+    }
+
+    public int followingCount(long userId) {
+        return degree(userId, false);
+    }
+
+    @Scheduled(fixedDelayString = "${app.graph.compactionIntervalMs:60000}")
+    public void compact() {
+        if (!ready) {
+            return;
+        }
+        synchronized (compactionLock) {
+            Map<Long, Map<Long, Boolean>> edits;
+            Csr base;
+            lock.writeLock().lock();
+            try {
+                if (editCount == 0) {
+                    return;
+                }
+                edits = copy(followingEdits);
+                base = following;
+                compacting = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            EdgeList edges;
+            Csr newFollowers;
+            Csr newFollowing;
+            try {
+                edges = merge(base, edits);
+                newFollowers = Csr.build(edges.targets, edges.sources, edges.size);
+                newFollowing = Csr.build(edges.sources, edges.targets, edges.size);
+            } catch (RuntimeException | Error e) {
+                lock.writeLock().lock();
+                try {
+                    compacting = false;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            int left;
+            lock.writeLock().lock();
+            try {
+                install(newFollowers, newFollowing);
+                left = editCount;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Compacted follow graph to {} edges, {} edits left", edges.size, left);
+        }
+    }
+
+    int pendingEdits() {
+        lock.readLock().lock();
+        try {
+            return editCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void edit(long followerId, long followedId, boolean present) {
+        boolean compactNow;
+        lock.writeLock().lock();
+        try {
+            if (!compacting && following.contains(followerId, followedId) == present) {
+                // Back to what the arrays say
+                removeEdit(followerId, followedId);
+            } else {
+                if (followingEdits.computeIfAbsent(followerId, id -> new HashMap<>()).put(followedId, present) == null) {
+                    editCount++;
+                }
+                followerEdits.computeIfAbsent(followedId, id -> new HashMap<>()).put(followerId, present);
+            }
+            compactNow = editCount >= compactionThreshold && !compacting;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compactNow && compactionQueued.compareAndSet(false, true)) {
+            pool.execute(() -> {
+                try {
+                    compact();
+                } catch (RuntimeException e) {
+                    log.warn("Follow graph compaction failed, edits stay in the overlay", e);
+                } finally {
+                    compactionQueued.set(false);
+                }
+            });
+        }
+    }
+
+    // Caller holds the write lock
+    private void install(Csr newFollowers, Csr newFollowing) {
+        followers = newFollowers;
+        following = newFollowing;
+        compacting = false;
+        for (Map.Entry<Long, Map<Long, Boolean>> row : copy(followingEdits).entrySet()) {
+            row.getValue().forEach((followedId, present) -> {
+                if (following.contains(row.getKey(), followedId) == present) {
+                    removeEdit(row.getKey(), followedId);
+                }
+            });
+        }
+    }
+
+    // Caller holds the write lock
+    private void removeEdit(long followerId, long followedId) {
+        Map<Long, Boolean> row = followingEdits.get(followerId);
+        if (row != null && row.remove(followedId) != null) {
+            editCount--;
+            if (row.isEmpty()) {
+                followingEdits.remove(followerId);
+            }
+        }
+        Map<Long, Boolean> reverse = followerEdits.get(followedId);
+        if (reverse != null) {
+            reverse.remove(followerId);
+            if (reverse.isEmpty()) {
+                followerEdits.remove(followedId);
+            }
+        }
+    }
+
+    private long[] neighbours(long userId, boolean incoming) {
+        lock.readLock().lock();
+        try {
+            Csr base = incoming ? followers : following;
+            Map<Long, Boolean> edits = (incoming ? followerEdits : followingEdits).get(userId);
+            long[] row = base.row(userId);
+            if (edits == null) {
+                return row;
+            }
+            long[] result = new long[row.length + edits.size()];
+            int size = 0;
+            for (long neighbour : row) {
+                if (!Boolean.FALSE.equals(edits.get(neighbour))) {
+                    result[size++] = neighbour;
+                }
+            }
+            for (Map.Entry<Long, Boolean> edit : edits.entrySet()) {
+                if (edit.getValue() && Arrays.binarySearch(row, edit.getKey()) < 0) {
+                    result[size++] = edit.getKey();
+                }
+            }
+            long[] merged = Arrays.copyOf(result, size);
+            Arrays.sort(merged);
+            return merged;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int degree(long userId, boolean incoming) {
+        lock.readLock().lock();
+        try {
+            Csr base = incoming ? followers : following;
+            int degree = base.degree(userId);
+            Map<Long, Boolean> edits = (incoming ? followerEdits : followingEdits).get(userId);
+            if (edits != null) {
+                for (Map.Entry<Long, Boolean> edit : edits.entrySet()) {
+                    if (edit.getValue() != base.contains(userId, edit.getKey())) {
+                        degree += edit.getValue() ? 1 : -1;
+                    }
+                }
+            }
+            return degree;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static EdgeList merge(Csr base, Map<Long, Map<Long, Boolean>> edits) {
+        EdgeList edges = new EdgeList();
+        for (int i = 0; i < base.nodes.length; i++) {
+            long followerId = base.nodes[i];
+            Map<Long, Boolean> row = edits.get(followerId);
+            for (int j = base.offsets[i]; j < base.offsets[i + 1]; j++) {
+                if (row == null || !Boolean.FALSE.equals(row.get(base.edges[j]))) {
+                    edges.add(followerId, base.edges[j]);
+                }
+            }
+        }
+        edits.forEach((followerId, row) -> row.forEach((followedId, present) -> {
+            if (present && !base.contains(followerId, followedId)) {
+                edges.add(followerId, followedId);
+            }
+        }));
+        return edges;
+    }
+
+    // edits is followerId's row of followingEdits; caller holds the read lock
+    private boolean follows(Map<Long, Boolean> edits, long followerId, long followedId) {
+        Boolean edited = edits != null ? edits.get(followedId) : null;
+        return edited != null ? edited : following.contains(followerId, followedId);
+    }
+
+    private static Map<Long, Map<Long, Boolean>> copy(Map<Long, Map<Long, Boolean>> edits) {
+        Map<Long, Map<Long, Boolean>> copy = new HashMap<>();
+        edits.forEach((id, row) -> copy.put(id, new HashMap<>(row)));
+        return copy;
+    }
+
+    // Growable pair of parallel id arrays
+    private static final class EdgeList {
+        private long[] sources = new long[1024];
+        private long[] targets = new long[1024];
+        private int size;
+
+        private void add(long source, long target) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            size++;
+        }
+    }
+
+    // Immutable compressed sparse rows: the neighbours of nodes[i] are
+    // edges[offsets[i]] to edges[offsets[i + 1] - 1], in ascending order
+    private static final class Csr {
+        private static final Csr EMPTY = new Csr(NONE, new int[1], NONE);
+
+        private final long[] nodes;
+        private final int[] offsets;
+        private final long[] edges;
+
+        private Csr(long[] nodes, int[] offsets, long[] edges) {
+            this.nodes = nodes;
+            this.offsets = offsets;
+            this.edges = edges;
+        }
+
+        // Rows keyed by sources[k], holding targets[k]; pairs are distinct
+        private static Csr build(long[] sources, long[] targets, int size) {
+            long[] nodes = Arrays.copyOf(sources, size);
+            Arrays.sort(nodes);
+            int nodeCount = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || nodes[i] != nodes[i - 1]) {
+                    nodes[nodeCount++] = nodes[i];
+                }
+            }
+            nodes = Arrays.copyOf(nodes, nodeCount);
+
+            // Counting sort of the edges into their rows
+            int[] offsets = new int[nodeCount + 1];
+            int[] rowOf = new int[size];
+            for (int i = 0; i < size; i++) {
+                rowOf[i] = Arrays.binarySearch(nodes, sources[i]);
+                offsets[rowOf[i] + 1]++;
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            int[] next = Arrays.copyOf(offsets, nodeCount);
+            long[] edges = new long[size];
+            for (int i = 0; i < size; i++) {
+                edges[next[rowOf[i]]++] = targets[i];
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                Arrays.sort(edges, offsets[i], offsets[i + 1]);
+            }
+            return new Csr(nodes, offsets, edges);
+        }
+
+        private long[] row(long node) {
+            int i = Arrays.binarySearch(nodes, node);
+            return i < 0 ? NONE : Arrays.copyOfRange(edges, offsets[i], offsets[i + 1]);
+        }
+
+        private int degree(long node) {
+            int i = Arrays.binarySearch(nodes, node);
+            return i < 0 ? 0 : offsets[i + 1] - offsets[i];
+        }
+
+        private boolean contains(long node, long neighbour) {
+            int i = Arrays.binarySearch(nodes, node);
+            return i >= 0 && Arrays.binarySearch(edges, offsets[i], offsets[i + 1], neighbour) >= 0;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.skillsharing.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Splits text into lowercase search terms: runs of letters and digits, at
+// least two characters long, minus a few very common English words. Used
+// for both indexed documents and queries so the two always agree.
+// Names are split with nameTokens instead, which keeps every word and folds
+// accents so "José" is found by typing "jose"; fold is the same folding for
+// substring search.
+final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+        "of", "on", "or", "that", "the", "this", "to", "was", "with");
+
+    private TextAnalyzer() {
+    }
+
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addTerm(terms, lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    static List<String> nameTokens(String name) {
+        List<String> tokens = new ArrayList<>();
+        if (name == null || name.isEmpty()) {
+            return tokens;
+        }
+        for (String token : fold(name).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Lowercase with accents removed
+    static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}+", "")
+            .toLowerCase(Locale.ROOT);
+    }
+
+    private static void addTerm(List<String> terms, String term) {
+        if (term.length() >= 2 && !STOP_WORDS.contains(term)) {
+            terms.add(term);
+        }
+    }
+}
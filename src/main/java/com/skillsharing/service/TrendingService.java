@@ -0,0 +1,212 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.event.PostLikeChangedEvent;
+import com.skillsharing.model.Post;
+import com.skillsharing.repository.PostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Trending posts leaderboard. Every like and comment adds a weight of
+// e^(lambda * (t - EPOCH)) to its post's score, the same forward decay as
+// FeedRankingService: the order of two scores never changes as time passes,
+// so the leaderboard is only touched when a post gets engagement. Scores are
+// kept as logarithms in a skip list sorted best first; a page of the
+// leaderboard is read by walking its head.
+//
+// Only posts with engagement are tracked. Posts that fall beyond
+// app.trending.maxTrackedPosts are evicted from the tail, which is always the
+// least trending entry.
+@Slf4j
+@Service
+public class TrendingService {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final Comparator<Entry> BEST_FIRST = Comparator.comparingDouble(Entry::logScore).reversed()
+        .thenComparing(Entry::postId, Comparator.reverseOrder());
+
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final double lambdaPerSecond;
+    private final double likeWeight;
+    private final double commentWeight;
+    private final int maxTrackedPosts;
+    private final int seedDays;
+
+    // Post id -> its current leaderboard entry. Both structures are updated
+    // inside compute() for the post, so writers for one post are serialized.
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> leaderboard = new ConcurrentSkipListSet<>(BEST_FIRST);
+
+    public TrendingService(PostRepository postRepository, JdbcTemplate jdbcTemplate, AppProperties appProperties) {
+        AppProperties.Trending trending = appProperties.getTrending();
+        this.postRepository = postRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.lambdaPerSecond = Math.log(2) / (trending.getHalfLifeHours() * 3600);
+        this.likeWeight = trending.getLikeWeight();
+        this.commentWeight = trending.getCommentWeight();
+        this.maxTrackedPosts = trending.getMaxTrackedPosts();
+        this.seedDays = trending.getSeedDays();
+    }
+
+    // Rebuilds the leaderboard from the stored counters of recent posts,
+    // treating their engagement as if it happened when the post was created
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (seedDays <= 0) {
+            return;
+        }
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusDays(seedDays));
+        jdbcTemplate.query(
+            "SELECT id, created_at, like_count, comment_count FROM posts " +
+            "WHERE created_at >= ? AND (like_count > 0 OR comment_count > 0)",
+            rs -> {
+                double weight = rs.getLong(3) * likeWeight + rs.getLong(4) * commentWeight;
+                if (weight <= 0) {
+                    return;
+                }
+                add(rs.getLong(1), Math.log(weight) + lambdaPerSecond * secondsSinceEpoch(
+                    rs.getTimestamp(2).toLocalDateTime()));
+            },
+            since);
+        log.info("Seeded trending leaderboard with {} posts", entries.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostLikeChanged(PostLikeChangedEvent event) {
+        if (event.liked()) {
+            recordLike(event.post().getId());
+        } else {
+            recordUnlike(event.post().getId(), event.post().getLikeCount() + event.post().getCommentCount());
+        }
+    }
+
+    public void recordLike(Long postId) {
+        add(postId, logWeight(likeWeight, LocalDateTime.now()));
+    }
+
+    // Takes back the weight a like would have now, but no more than an even
+    // share of the score per stored like and comment, since the like may be
+    // far older and weigh much less. A post whose score drops to nothing
+    // leaves the leaderboard.
+    public void recordUnlike(Long postId, long engagements) {
+        double likedNow = logWeight(likeWeight, LocalDateTime.now());
+        double share = Math.log(Math.max(1, engagements));
+        entries.computeIfPresent(postId, (id, current) -> {
+            leaderboard.remove(current);
+            double removed = Math.min(likedNow, current.logScore() - share);
+            if (removed >= current.logScore()) {
+                return null;
+            }
+            Entry next = new Entry(id, current.logScore() + Math.log1p(-Math.exp(removed - current.logScore())));
+            leaderboard.add(next);
+            return next;
+        });
+    }
+
+    public void recordComment(Long postId) {
+        add(postId, logWeight(commentWeight, LocalDateTime.now()));
+    }
+
+    public void forget(Long postId) {
+        entries.computeIfPresent(postId, (id, current) -> {
+            leaderboard.remove(current);
+            return null;
+        });
+    }
+
+    // Ids of the page's posts, best first. Costs O(offset + page size).
+    public List<Long> topPostIds(long offset, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        // A concurrent update can briefly leave a post's old and new entry in the list
+        Set<Long> seen = new HashSet<>();
+        long skipped = 0;
+        for (Entry entry : leaderboard) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            if (!seen.add(entry.postId())) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                ids.add(entry.postId());
+            }
+        }
+        return ids;
+    }
+
+    public Page<Post> getTrendingPosts(Pageable pageable) {
+        List<Long> ids = topPostIds(pageable.getOffset(), pageable.getPageSize());
+        List<Post> posts = ids.isEmpty() ? List.of() : postRepository.findAllByIdInOrder(ids);
+        return new PageImpl<>(posts, pageable, entries.size());
+    }
+
+    int trackedPosts() {
+        return entries.size();
+    }
+
+    double logScore(Long postId) {
+        Entry entry = entries.get(postId);
+        return entry != null ? entry.logScore() : Double.NEGATIVE_INFINITY;
+    }
+
+    void add(Long postId, double addedLogWeight) {
+        entries.compute(postId, (id, current) -> {
+            double logScore = addedLogWeight;
+            if (current != null) {
+                leaderboard.remove(current);
+                logScore = logAdd(current.logScore(), addedLogWeight);
+            }
+            Entry next = new Entry(id, logScore);
+            leaderboard.add(next);
+            return next;
+        });
+        while (entries.size() > maxTrackedPosts) {
+            Entry last = leaderboard.pollLast();
+            if (last == null) {
+                break;
+            }
+            entries.remove(last.postId(), last);
+        }
+    }
+
+    double logWeight(double weight, LocalDateTime at) {
+        return Math.log(weight) + lambdaPerSecond * secondsSinceEpoch(at);
+    }
+
+    private static double secondsSinceEpoch(LocalDateTime at) {
+        return Duration.between(EPOCH, at).getSeconds();
+    }
+
+    // log(e^a + e^b) without overflow
+    private static double logAdd(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    private record Entry(Long postId, double logScore) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.skillsharing.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+// Substring index: every document's folded text is split into overlapping
+// three-character windows, and each trigram maps to the sorted ids of the
+// documents containing it. A query's candidates are the intersection of its
+// trigrams' lists, smallest list first; candidates are then checked against
+// the stored text, since sharing all trigrams does not guarantee the
+// substring. Queries shorter than three characters have no trigram and scan
+// the stored texts instead.
+//
+// Results are ordered by id, highest first. Thread-safe: searches share a
+// read lock, changes take the write lock.
+final class TrigramIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> texts = new HashMap<>();
+    private final Map<Long, IdList> postings = new HashMap<>();
+
+    void put(long id, String text) {
+        String folded = TextAnalyzer.fold(text);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            texts.put(id, folded);
+            for (long trigram : trigrams(folded)) {
+                postings.computeIfAbsent(trigram, t -> new IdList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return texts.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return texts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    SearchHits search(String query, long offset, int limit) {
+        return search(query, id -> true, id -> { }, offset, limit);
+    }
+
+    // Candidates rejected by filter are dropped before the text is checked;
+    // every match is passed to onMatch
+    SearchHits search(String query, LongPredicate filter, LongConsumer onMatch, long offset, int limit) {
+        String needle = TextAnalyzer.fold(query).strip();
+        if (needle.isEmpty() || limit <= 0) {
+            return SearchHits.EMPTY;
+        }
+        lock.readLock().lock();
+        try {
+            long[] candidates = needle.length() < 3 ? allIds() : candidates(needle);
+            List<Long> page = new ArrayList<>(limit);
+            long total = 0;
+            for (int i = candidates.length - 1; i >= 0; i--) {
+                if (!filter.test(candidates[i]) || !texts.get(candidates[i]).contains(needle)) {
+                    continue;
+                }
+                onMatch.accept(candidates[i]);
+                if (total >= offset && page.size() < limit) {
+                    page.add(candidates[i]);
+                }
+                total++;
+            }
+            return new SearchHits(page, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] candidates(String needle) {
+        Set<Long> queryTrigrams = trigrams(needle);
+        List<IdList> lists = new ArrayList<>(queryTrigrams.size());
+        for (long trigram : queryTrigrams) {
+            IdList list = postings.get(trigram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        long[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int size = result.length;
+        for (int l = 1; l < lists.size() && size > 0; l++) {
+            IdList list = lists.get(l);
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (Arrays.binarySearch(list.ids, 0, list.size, result[i]) >= 0) {
+                    result[kept++] = result[i];
+                }
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private long[] allIds() {
+        long[] ids = new long[texts.size()];
+        int i = 0;
+        for (Long id : texts.keySet()) {
+            ids[i++] = id;
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private void removeLocked(long id) {
+        String old = texts.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (long trigram : trigrams(old)) {
+            IdList list = postings.get(trigram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    // Three UTF-16 chars packed into one long
+    private static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    // Sorted, growable list of ids
+    private static final class IdList {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        private boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.skillsharing.service;
+
+import com.skillsharing.event.PostChangedEvent;
+import com.skillsharing.event.UserChangedEvent;
+import com.skillsharing.model.Post;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+// Substring search over post descriptions and author names, so "script"
+// finds "JavaScript". Matches are returned newest first. Enabled with
+// app.search.postBackend=trigram in place of the BM25 index.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.search", name = "postBackend", havingValue = "trigram")
+public class TrigramPostSearch implements PostSearchBackend {
+
+    private static final String TEXT_SQL =
+        "SELECT p.id, p.description, u.name FROM posts p JOIN users u ON u.id = p.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrigramIndex index = new TrigramIndex();
+
+    // Posts changed while the startup load ran; their loaded text may be stale
+    private final Set<Long> changedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public TrigramPostSearch(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        loading = true;
+        try {
+            int[] loaded = {0};
+            jdbcTemplate.query(TEXT_SQL, rs -> {
+                long postId = rs.getLong(1);
+                if (!changedDuringLoad.contains(postId) && !index.contains(postId)) {
+                    index.put(postId, text(rs.getString(2), rs.getString(3)));
+                    loaded[0]++;
+                }
+            });
+            log.info("Loaded {} posts into the trigram search index", loaded[0]);
+        } finally {
+            loading = false;
+            changedDuringLoad.clear();
+            ready = true;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Long postId = event.post().getId();
+        if (loading) {
+            changedDuringLoad.add(postId);
+        }
+        if (event.type() == PostChangedEvent.Type.DELETED) {
+            index.remove(postId);
+        } else {
+            Post post = event.post();
+            String author = post.getUser() != null ? post.getUser().getName() : null;
+            index.put(postId, text(post.getDescription(), author));
+        }
+    }
+
+    // The author's name is indexed with each of their posts
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.renamed()) {
+            return;
+        }
+        jdbcTemplate.query(TEXT_SQL + " WHERE p.user_id = ?", rs -> {
+            long postId = rs.getLong(1);
+            if (loading) {
+                changedDuringLoad.add(postId);
+            }
+            index.put(postId, text(rs.getString(2), rs.getString(3)));
+        }, event.user().getId());
+    }
+
+    @Override
+    public SearchHits search(String query, LongPredicate filter, LongConsumer onMatch, long offset, int limit) {
+        return index.search(query, filter, onMatch, offset, limit);
+    }
+
+    int indexedPosts() {
+        return index.size();
+    }
+
+    // Newline keeps a match from spanning description and author
+    private static String text(String description, String author) {
+        return (description != null ? description : "") + "\n" + (author != null ? author : "");
+    }
+
+}
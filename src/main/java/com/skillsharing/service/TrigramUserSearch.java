@@ -0,0 +1,84 @@
+package com.skillsharing.service;
+
+import com.skillsharing.event.UserChangedEvent;
+import com.skillsharing.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Substring search over user names and emails, matching what the LIKE
+// query in UserRepository.searchUsers finds without scanning the table.
+// Matches are returned newest user first.
+@Slf4j
+@Component
+public class TrigramUserSearch implements UserSearchBackend {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrigramIndex index = new TrigramIndex();
+
+    // Users changed while the startup load ran; their loaded text may be stale
+    private final Set<Long> changedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public TrigramUserSearch(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        loading = true;
+        try {
+            int[] loaded = {0};
+            jdbcTemplate.query("SELECT id, name, email FROM users", rs -> {
+                long userId = rs.getLong(1);
+                if (!changedDuringLoad.contains(userId) && !index.contains(userId)) {
+                    index.put(userId, text(rs.getString(2), rs.getString(3)));
+                    loaded[0]++;
+                }
+            });
+            log.info("Loaded {} users into the trigram search index", loaded[0]);
+        } finally {
+            loading = false;
+            changedDuringLoad.clear();
+            ready = true;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        User user = event.user();
+        Long userId = user.getId();
+        if (loading) {
+            changedDuringLoad.add(userId);
+        }
+        index.put(userId, text(user.getName(), user.getEmail()));
+    }
+
+    @Override
+    public SearchHits search(String query, long offset, int limit) {
+        return index.search(query, offset, limit);
+    }
+
+    int indexedUsers() {
+        return index.size();
+    }
+
+    // Newline keeps a match from spanning name and email
+    private static String text(String name, String email) {
+        return (name != null ? name : "") + "\n" + (email != null ? email : "");
+    }
+
+}
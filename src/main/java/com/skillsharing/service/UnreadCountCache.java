@@ -0,0 +1,66 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Unread notification count per user, least-recently-used beyond
+// app.notification.unreadCountCacheSize.
+//
+// A count read from the database may be cached only if no notification for
+// any user changed while it was being read; callers take generation() before
+// counting and hand it to put(). Evictions bump the generation both right away
+// and again once the writing transaction commits, so a count read before the
+// commit cannot be cached afterwards.
+@Component
+public class UnreadCountCache {
+
+    private final Map<Long, Long> counts;
+    private final AtomicLong generation = new AtomicLong();
+
+    public UnreadCountCache(AppProperties appProperties) {
+        int maxEntries = appProperties.getNotification().getUnreadCountCacheSize();
+        this.counts = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized Long get(Long userId) {
+        return counts.get(userId);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public synchronized void put(Long userId, long count, long readGeneration) {
+        if (generation.get() == readGeneration) {
+            counts.put(userId, count);
+        }
+    }
+
+    public void evict(Long userId) {
+        remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(userId);
+                }
+            });
+        }
+    }
+
+    private synchronized void remove(Long userId) {
+        generation.incrementAndGet();
+        counts.remove(userId);
+    }
+}
@@ -0,0 +1,10 @@
+package com.skillsharing.service;
+
+// Search behind UserService.searchUsers: substring matches on name or email
+public interface UserSearchBackend {
+
+    // False while the backend is still loading; callers fall back to the database
+    boolean isReady();
+
+    SearchHits search(String query, long offset, int limit);
+}
@@ -1,21 +1,89 @@
 package com.skillsharing.service;
 
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.dto.CursorPage;
+import com.skillsharing.dto.FollowResult;
+import com.skillsharing.dto.IdCursor;
+import com.skillsharing.dto.UserCard;
+import com.skillsharing.event.UserChangedEvent;
+import com.skillsharing.exception.BadRequestException;
 import com.skillsharing.model.User;
 import com.skillsharing.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class UserService {
 
+    private static final String FOLLOW_SQL =
+        "INSERT INTO user_followers (following_id, follower_id) SELECT ?, ? " +
+        "WHERE EXISTS (SELECT 1 FROM users WHERE id = ?) " +
+        "AND NOT EXISTS (SELECT 1 FROM user_followers WHERE following_id = ? AND follower_id = ?)";
+    private static final String UNFOLLOW_SQL = "DELETE FROM user_followers WHERE following_id = ? AND follower_id = ?";
+    // Both counters in one statement, so concurrent follows between the same
+    // two users lock their rows in the same order
+    private static final String ADJUST_COUNTS_SQL =
+        "UPDATE users SET " +
+        "follower_count = follower_count + CASE WHEN id = ? THEN ? ELSE 0 END, " +
+        "following_count = following_count + CASE WHEN id = ? THEN ? ELSE 0 END " +
+        "WHERE id IN (?, ?)";
+    private static final String FOLLOWER_COUNT_SQL = "SELECT follower_count FROM users WHERE id = ?";
+    private static final String FOLLOWING_COUNT_SQL = "SELECT following_count FROM users WHERE id = ?";
+    // Every edge adds one to a follower_count and one to a following_count
+    private static final String COUNTED_EDGES_SQL =
+        "SELECT COALESCE(SUM(follower_count), 0) + COALESCE(SUM(following_count), 0) FROM users";
+    private static final String EDGES_SQL = "SELECT COUNT(*) FROM user_followers";
+    private static final String RECONCILE_FOLLOW_COUNTS_SQL =
+        "UPDATE users u SET " +
+        "follower_count = (SELECT COUNT(*) FROM user_followers f WHERE f.following_id = u.id), " +
+        "following_count = (SELECT COUNT(*) FROM user_followers f WHERE f.follower_id = u.id) " +
+        "WHERE follower_count <> (SELECT COUNT(*) FROM user_followers f WHERE f.following_id = u.id) " +
+        "OR following_count <> (SELECT COUNT(*) FROM user_followers f WHERE f.follower_id = u.id)";
+
     private final UserRepository userRepository;
+    private final FeedService feedService;
+    private final UserTypeaheadIndex userTypeaheadIndex;
+    private final SocialGraph socialGraph;
+    private final FollowSuggestionService followSuggestionService;
+    private final UserSearchBackend userSearchBackend;
+    private final SearchResultCache searchResultCache;
+    private final AppProperties appProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    // The counters were added after user_followers already had rows, and start
+    // at 0 for those. Follows keep them exact from then on, so they are
+    // recomputed only while they disagree with the edge count, which in
+    // practice means once, on the first start after the columns were added.
+    @PostConstruct
+    public void reconcileFollowCounts() {
+        long counted = jdbcTemplate.queryForObject(COUNTED_EDGES_SQL, Long.class);
+        long edges = jdbcTemplate.queryForObject(EDGES_SQL, Long.class);
+        if (counted == 2 * edges) {
+            return;
+        }
+        int updated = jdbcTemplate.update(RECONCILE_FOLLOW_COUNTS_SQL);
+        log.info("Reconciled follow counts of {} users", updated);
+    }
 
     public User getUserById(Long id) {
         return userRepository.findById(id)
@@ -31,11 +99,14 @@ public class UserService {
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new IllegalArgumentException("Email already registered");
         }
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser));
+        return savedUser;
     }
 
     public User updateUser(Long id, User userDetails) {
         User user = getUserById(id);
+        boolean renamed = !Objects.equals(user.getName(), userDetails.getName());
         
         user.setName(userDetails.getName());
         user.setBio(userDetails.getBio());
@@ -43,56 +114,166 @@ public class UserService {
             user.setProfilePicture(userDetails.getProfilePicture());
         }
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser, renamed));
+        return savedUser;
     }
 
-    public void followUser(Long userId, Long followId) {
+    // One INSERT on user_followers: following twice changes nothing. The
+    // primary key on (following_id, follower_id) settles concurrent follows;
+    // the losing insert fails and is reported as already following.
+    public FollowResult followUser(Long userId, Long followId) {
         if (userId.equals(followId)) {
             throw new IllegalArgumentException("Users cannot follow themselves");
         }
 
-        User user = getUserById(userId);
-        User followUser = getUserById(followId);
-
-        if (userRepository.isFollowing(followId, userId)) {
-            throw new IllegalArgumentException("Already following this user");
+        int inserted;
+        try {
+            inserted = jdbcTemplate.update(FOLLOW_SQL, followId, userId, followId, followId, userId);
+        } catch (DuplicateKeyException e) {
+            inserted = 0;
+        }
+        if (inserted == 0 && !userRepository.existsById(followId)) {
+            throw new EntityNotFoundException("User not found with id: " + followId);
         }
 
-        user.getFollowing().add(followUser);
-        followUser.getFollowers().add(user);
-        
-        userRepository.save(user);
-        userRepository.save(followUser);
+        if (inserted > 0) {
+            adjustCounts(userId, followId, 1);
+            feedService.onFollow(userId, followId);
+            userTypeaheadIndex.recordFollow(followId);
+            socialGraph.recordFollow(userId, followId);
+            followSuggestionService.recordFollow(userId, followId);
+        }
+        return followResult(userId, followId, true);
     }
 
-    public void unfollowUser(Long userId, Long unfollowId) {
-        User user = getUserById(userId);
-        User unfollowUser = getUserById(unfollowId);
-
-        if (!userRepository.isFollowing(unfollowId, userId)) {
-            throw new IllegalArgumentException("Not following this user");
+    // One DELETE on user_followers: unfollowing a user not followed changes nothing
+    public FollowResult unfollowUser(Long userId, Long unfollowId) {
+        int deleted = jdbcTemplate.update(UNFOLLOW_SQL, unfollowId, userId);
+        if (deleted == 0 && !userRepository.existsById(unfollowId)) {
+            throw new EntityNotFoundException("User not found with id: " + unfollowId);
         }
 
-        user.getFollowing().remove(unfollowUser);
-        unfollowUser.getFollowers().remove(user);
-        
-        userRepository.save(user);
-        userRepository.save(unfollowUser);
+        if (deleted > 0) {
+            adjustCounts(userId, unfollowId, -1);
+            feedService.onUnfollow(userId, unfollowId);
+            userTypeaheadIndex.recordUnfollow(unfollowId);
+            socialGraph.recordUnfollow(userId, unfollowId);
+            followSuggestionService.recordUnfollow(userId, unfollowId);
+        }
+        return followResult(userId, unfollowId, false);
     }
 
     public List<User> getFollowers(Long userId) {
-        return userRepository.findFollowersByUserId(userId);
+        if (!socialGraph.isReady()) {
+            return userRepository.findFollowersByUserId(userId);
+        }
+        return findUsers(socialGraph.followerIds(userId));
     }
 
     public List<User> getFollowing(Long userId) {
-        return userRepository.findFollowingByUserId(userId);
+        if (!socialGraph.isReady()) {
+            return userRepository.findFollowingByUserId(userId);
+        }
+        return findUsers(socialGraph.followingIds(userId));
+    }
+
+    // Keyset pages of lightweight cards, highest user id first. The graph
+    // answers which ids belong on the page; only those users are loaded.
+    @Transactional(readOnly = true)
+    public CursorPage<UserCard> scrollFollowers(Long userId, IdCursor cursor, int size) {
+        if (!socialGraph.isReady()) {
+            return CursorPage.of(userRepository.findFollowerCardsBefore(userId, cursor.id(), PageRequest.of(0, size + 1)),
+                size, card -> new IdCursor(card.id()).encode());
+        }
+        return cardPage(socialGraph.followerIds(userId), cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserCard> scrollFollowing(Long userId, IdCursor cursor, int size) {
+        if (!socialGraph.isReady()) {
+            return CursorPage.of(userRepository.findFollowingCardsBefore(userId, cursor.id(), PageRequest.of(0, size + 1)),
+                size, card -> new IdCursor(card.id()).encode());
+        }
+        return cardPage(socialGraph.followingIds(userId), cursor, size);
     }
 
     public List<User> searchUsers(String keyword) {
-        return userRepository.searchUsers(keyword);
+        if (!userSearchBackend.isReady()) {
+            // The backend is still loading at startup
+            return userRepository.searchUsers(keyword);
+        }
+        int limit = appProperties.getSearch().getUserSearchMaxResults();
+        SearchHits hits = searchResultCache.get(SearchResultCache.Scope.USERS, keyword, limit,
+            () -> userSearchBackend.search(keyword, 0, limit));
+        return hits.ids().isEmpty() ? List.of() : userRepository.findAllByIdInOrder(hits.ids());
+    }
+
+    // Typeahead suggestions: users with a name word starting with each word
+    // of the query, most followed first
+    public List<UserCard> suggestUsers(String query, int limit) {
+        return userTypeaheadIndex.suggest(query, limit);
+    }
+
+    // People the user may know, best first; empty until the first background
+    // ranking has run
+    @Transactional(readOnly = true)
+    public List<UserCard> suggestFollows(Long userId, int limit) {
+        long[] ids = followSuggestionService.suggestions(userId, limit);
+        return ids.length == 0 ? List.of() : userRepository.findCardsInOrder(Arrays.stream(ids).boxed().toList());
     }
 
     public boolean isFollowing(Long userId, Long followerId) {
-        return userRepository.isFollowing(userId, followerId);
+        if (!socialGraph.isReady()) {
+            return userRepository.isFollowing(userId, followerId);
+        }
+        return socialGraph.follows(followerId, userId);
+    }
+
+    // Which of userIds followerId follows, for pages that show a follow
+    // button on every user card: one lookup instead of one per card
+    @Transactional(readOnly = true)
+    public Set<Long> followedAmong(Long followerId, List<Long> userIds) {
+        if (userIds.size() > CursorPage.MAX_SIZE) {
+            throw new BadRequestException("At most " + CursorPage.MAX_SIZE + " user ids can be requested at once");
+        }
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        if (!socialGraph.isReady()) {
+            return new HashSet<>(userRepository.findFollowedIdsAmong(followerId, userIds));
+        }
+        return socialGraph.followedAmong(followerId, userIds);
+    }
+
+    private List<User> findUsers(long[] ids) {
+        return ids.length == 0 ? List.of() : userRepository.findAllByIdInOrder(Arrays.stream(ids).boxed().toList());
+    }
+
+    // sortedIds is ascending, so the page is walked backwards from the first
+    // id below the cursor
+    private CursorPage<UserCard> cardPage(long[] sortedIds, IdCursor cursor, int size) {
+        int end = Arrays.binarySearch(sortedIds, cursor.id());
+        if (end < 0) {
+            end = -end - 1;
+        }
+        int start = Math.max(0, end - size);
+        List<Long> ids = new ArrayList<>(end - start);
+        for (int i = end - 1; i >= start; i--) {
+            ids.add(sortedIds[i]);
+        }
+        List<UserCard> cards = ids.isEmpty() ? List.of() : userRepository.findCardsInOrder(ids);
+        boolean hasNext = start > 0;
+        return new CursorPage<>(cards, hasNext ? new IdCursor(sortedIds[start]).encode() : null, hasNext);
+    }
+
+    private void adjustCounts(Long followerId, Long followedId, int delta) {
+        jdbcTemplate.update(ADJUST_COUNTS_SQL, followedId, delta, followerId, delta, followedId, followerId);
+    }
+
+    private FollowResult followResult(Long userId, Long followedId, boolean following) {
+        long followers = jdbcTemplate.queryForObject(FOLLOWER_COUNT_SQL, Long.class, followedId);
+        long followed = jdbcTemplate.queryForObject(FOLLOWING_COUNT_SQL, Long.class, userId);
+        return new FollowResult(followedId, following, followers, followed);
     }
 }
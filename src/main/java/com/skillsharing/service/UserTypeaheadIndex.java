@@ -0,0 +1,288 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.dto.UserCard;
+import com.skillsharing.event.UserChangedEvent;
+import com.skillsharing.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+// Prefix trie over the words of every user's name, for typeahead. A query
+// "jo sm" matches users having a name word starting with "jo" and one
+// starting with "sm"; results are the users with the most followers.
+//
+// Each trie node caches the best maxResults users below it, so a one-word
+// prefix is answered from a single node however many users share it. The
+// caches along a user's words are cleared when the user's name or follower
+// count changes and refilled by the next query. Queries take the read lock
+// and changes the write lock, so a cache is never filled from a half-applied
+// change.
+@Slf4j
+@Component
+public class UserTypeaheadIndex {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxResults;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<Long, Entry> users = new HashMap<>();
+
+    private final Comparator<Entry> bestFirst = Comparator.comparingLong(Entry::followerCount).reversed()
+        .thenComparing(Entry::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+        .thenComparing(Entry::id);
+
+    public UserTypeaheadIndex(JdbcTemplate jdbcTemplate, AppProperties appProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxResults = appProperties.getSearch().getTypeaheadMaxResults();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Entry> loaded = jdbcTemplate.query(
+            "SELECT id, name, profile_picture, follower_count FROM users",
+            (rs, rowNum) -> new Entry(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4),
+                TextAnalyzer.nameTokens(rs.getString(2))));
+        lock.writeLock().lock();
+        try {
+            for (Entry entry : loaded) {
+                // Users indexed from events while loading are newer
+                if (!users.containsKey(entry.id())) {
+                    put(entry);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded {} users into the typeahead index", loaded.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        User user = event.user();
+        Long userId = user.getId();
+        String name = user.getName();
+        lock.writeLock().lock();
+        try {
+            Entry current = users.get(userId);
+            long followers = current != null ? current.followerCount() : 0;
+            put(new Entry(userId, name, user.getProfilePicture(), followers, TextAnalyzer.nameTokens(name)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void recordFollow(Long followedId) {
+        AfterCommit.run(() -> adjustFollowers(followedId, 1));
+    }
+
+    public void recordUnfollow(Long followedId) {
+        AfterCommit.run(() -> adjustFollowers(followedId, -1));
+    }
+
+    public List<UserCard> suggest(String query, int limit) {
+        List<String> prefixes = TextAnalyzer.nameTokens(query);
+        int wanted = Math.min(limit, maxResults);
+        if (prefixes.isEmpty() || wanted <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Entry> matches = prefixes.size() == 1
+                ? top(prefixes.get(0))
+                : matchAll(prefixes);
+            List<UserCard> cards = new ArrayList<>(Math.min(wanted, matches.size()));
+            for (Entry entry : matches) {
+                if (cards.size() == wanted) {
+                    break;
+                }
+                cards.add(new UserCard(entry.id(), entry.name(), entry.profilePicture(), entry.followerCount()));
+            }
+            return cards;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int indexedUsers() {
+        lock.readLock().lock();
+        try {
+            return users.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Cached best users under the prefix; caller holds the read lock
+    private List<Entry> top(String prefix) {
+        Node node = find(prefix);
+        if (node == null) {
+            return List.of();
+        }
+        List<Entry> cached = node.top;
+        if (cached == null) {
+            cached = best(node, null);
+            node.top = cached;
+        }
+        return cached;
+    }
+
+    // Several words: walk the smallest prefix's subtree and keep the users
+    // whose name matches every other prefix too
+    private List<Entry> matchAll(List<String> prefixes) {
+        Node smallest = null;
+        for (String prefix : prefixes) {
+            Node node = find(prefix);
+            if (node == null) {
+                return List.of();
+            }
+            if (smallest == null || node.subtreeSize < smallest.subtreeSize) {
+                smallest = node;
+            }
+        }
+        return best(smallest, entry -> {
+            for (String prefix : prefixes) {
+                if (entry.tokens().stream().noneMatch(token -> token.startsWith(prefix))) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    private List<Entry> best(Node from, Predicate<Entry> filter) {
+        // Min-heap of the best maxResults users seen so far
+        PriorityQueue<Entry> heap = new PriorityQueue<>(bestFirst.reversed());
+        Set<Long> seen = new HashSet<>();
+        List<Node> stack = new ArrayList<>();
+        stack.add(from);
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            for (Long userId : node.userIds) {
+                Entry entry = users.get(userId);
+                if (entry == null || !seen.add(userId) || (filter != null && !filter.test(entry))) {
+                    continue;
+                }
+                heap.add(entry);
+                if (heap.size() > maxResults) {
+                    heap.poll();
+                }
+            }
+            stack.addAll(node.children.values());
+        }
+        List<Entry> result = new ArrayList<>(heap);
+        result.sort(bestFirst);
+        return List.copyOf(result);
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    // Caller holds the write lock
+    private void put(Entry entry) {
+        Entry old = users.put(entry.id(), entry);
+        if (old != null) {
+            for (String token : new HashSet<>(old.tokens())) {
+                removeToken(token, old.id());
+            }
+        }
+        for (String token : new HashSet<>(entry.tokens())) {
+            addToken(token, entry.id());
+        }
+    }
+
+    private void adjustFollowers(Long userId, long delta) {
+        lock.writeLock().lock();
+        try {
+            Entry current = users.get(userId);
+            if (current == null) {
+                return;
+            }
+            users.put(userId, new Entry(userId, current.name(), current.profilePicture(),
+                Math.max(0, current.followerCount() + delta), current.tokens()));
+            for (String token : new HashSet<>(current.tokens())) {
+                invalidate(token);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addToken(String token, Long userId) {
+        Node node = root;
+        node.subtreeSize++;
+        node.top = null;
+        for (int i = 0; i < token.length(); i++) {
+            node = node.children.computeIfAbsent(token.charAt(i), c -> new Node());
+            node.subtreeSize++;
+            node.top = null;
+        }
+        node.userIds.add(userId);
+    }
+
+    private void removeToken(String token, Long userId) {
+        List<Node> path = new ArrayList<>(token.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < token.length() && node != null; i++) {
+            node = node.children.get(token.charAt(i));
+            path.add(node);
+        }
+        if (node == null || !node.userIds.remove(userId)) {
+            return;
+        }
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node current = path.get(i);
+            current.subtreeSize--;
+            current.top = null;
+            if (i > 0 && current.subtreeSize == 0) {
+                path.get(i - 1).children.remove(token.charAt(i - 1));
+            }
+        }
+    }
+
+    private void invalidate(String token) {
+        Node node = root;
+        node.top = null;
+        for (int i = 0; i < token.length() && node != null; i++) {
+            node = node.children.get(token.charAt(i));
+            if (node != null) {
+                node.top = null;
+            }
+        }
+    }
+
+    private record Entry(Long id, String name, String profilePicture, long followerCount, List<String> tokens) {
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Set<Long> userIds = new HashSet<>();
+        // Users in this subtree, counted once per name word
+        private int subtreeSize;
+        // Best maxResults users in this subtree; null until a query needs it
+        private volatile List<Entry> top;
+    }
+}
@@ -1,18 +1,28 @@
 package com.skillsharing.controller;
 
 import com.skillsharing.BaseTest;
+import com.skillsharing.dto.FacetedPage;
+import com.skillsharing.dto.LikeStatus;
+import com.skillsharing.dto.PostEngagement;
+import com.skillsharing.dto.PostFacets;
+import com.skillsharing.dto.PostSearchFilter;
+import com.skillsharing.exception.ServiceUnavailableException;
+import com.skillsharing.exception.TooManyRequestsException;
 import com.skillsharing.model.Post;
 import com.skillsharing.service.PostService;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -45,7 +55,7 @@ class PostControllerTest extends BaseTest {
     void getPost_ShouldReturnPost() throws Exception {
         // Arrange
         Post post = createTestPost();
-        when(postService.getPostById(post.getId())).thenReturn(post);
+        when(postService.viewPost(post.getId())).thenReturn(post);
 
         // Act & Assert
         mockMvc.perform(get("/api/posts/{id}", post.getId()))
@@ -81,10 +91,15 @@ class PostControllerTest extends BaseTest {
 
     @Test
     void likePost_ShouldLikeSuccessfully() throws Exception {
+        // Arrange
+        when(postService.likePost(1L, testUser.getId())).thenReturn(new LikeStatus(1L, true));
+
         // Act & Assert
         mockMvc.perform(post("/api/posts/{id}/like", 1L)
                 .header("Authorization", getAuthHeader()))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.postId").value(1))
+                .andExpect(jsonPath("$.liked").value(true));
     }
 
     @Test
@@ -126,14 +141,68 @@ class PostControllerTest extends BaseTest {
     void searchPosts_ShouldReturnMatchingPosts() throws Exception {
         // Arrange
         List<Post> posts = Arrays.asList(createTestPost(), createTestPost());
-        Page<Post> postPage = new PageImpl<>(posts);
-        when(postService.searchPosts(eq("test"), any(Pageable.class))).thenReturn(postPage);
+        PostFacets facets = new PostFacets(Map.of(Post.PostType.LEARNING_PLAN, 2L), Map.of("java", 2L),
+            Map.of(), Map.of(YearMonth.of(2024, 5), 2L));
+        FacetedPage<Post> postPage = new FacetedPage<>(posts, PageRequest.of(0, 20), 2, facets);
+        PostSearchFilter filter = new PostSearchFilter(Post.PostType.LEARNING_PLAN, List.of("java", "spring"), null,
+            YearMonth.of(2024, 1), null);
+        when(postService.searchPosts(eq("test"), eq(filter), any(Pageable.class))).thenReturn(postPage);
 
         // Act & Assert
         mockMvc.perform(get("/api/posts/search")
-                .param("keyword", "test"))
+                .param("keyword", "test")
+                .param("type", "LEARNING_PLAN")
+                .param("topic", "java", "spring")
+                .param("from", "2024-01"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content.length()").value(2));
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.facets.topics.java").value(2))
+                .andExpect(jsonPath("$.facets.months['2024-05']").value(2));
+    }
+
+    @Test
+    void searchPosts_IndexesLoading_ShouldReturnServiceUnavailable() throws Exception {
+        // Arrange
+        when(postService.searchPosts(any(), any(PostSearchFilter.class), any(Pageable.class)))
+            .thenThrow(new ServiceUnavailableException("Search is starting up, please retry shortly"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/posts/search")
+                .param("type", "LEARNING_PLAN"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.message").value("Search is starting up, please retry shortly"));
+    }
+
+    @Test
+    void rebuildFeed_WithinCooldown_ShouldReturnTooManyRequests() throws Exception {
+        // Arrange
+        when(postService.rebuildFeed(testUser.getId()))
+            .thenThrow(new TooManyRequestsException("Feed was rebuilt recently, please try again later", 120));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/posts/feed/rebuild")
+                .header("Authorization", getAuthHeader()))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "120"));
+    }
+
+    @Test
+    void getEngagement_ShouldReturnCountsForAllRequestedPosts() throws Exception {
+        // Arrange
+        when(postService.getEngagement(List.of(1L, 2L), testUser.getId())).thenReturn(List.of(
+            new PostEngagement(1L, 5, 2, true),
+            new PostEngagement(2L, 0, 1, false)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/posts/engagement")
+                .header("Authorization", getAuthHeader())
+                .param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].likeCount").value(5))
+                .andExpect(jsonPath("$[0].likedByCurrentUser").value(true))
+                .andExpect(jsonPath("$[1].commentCount").value(1));
     }
 
     private Post createTestPost() {
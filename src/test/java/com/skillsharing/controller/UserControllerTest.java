@@ -1,6 +1,11 @@
 package com.skillsharing.controller;
 
 import com.skillsharing.BaseTest;
+import com.skillsharing.dto.CursorPage;
+import com.skillsharing.dto.FollowResult;
+import com.skillsharing.dto.IdCursor;
+import com.skillsharing.dto.UserCard;
+import com.skillsharing.exception.BadRequestException;
 import com.skillsharing.model.User;
 import com.skillsharing.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -10,6 +15,7 @@ import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -70,18 +76,28 @@ class UserControllerTest extends BaseTest {
 
     @Test
     void followUser_ShouldFollowSuccessfully() throws Exception {
+        // Arrange
+        when(userService.followUser(testUser.getId(), 2L)).thenReturn(new FollowResult(2L, true, 8, 1));
+
         // Act & Assert
         mockMvc.perform(post("/api/users/{id}/follow", 2L)
                 .header("Authorization", getAuthHeader()))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.following").value(true))
+                .andExpect(jsonPath("$.followerCount").value(8));
     }
 
     @Test
     void unfollowUser_ShouldUnfollowSuccessfully() throws Exception {
+        // Arrange
+        when(userService.unfollowUser(testUser.getId(), 2L)).thenReturn(new FollowResult(2L, false, 7, 0));
+
         // Act & Assert
         mockMvc.perform(post("/api/users/{id}/unfollow", 2L)
                 .header("Authorization", getAuthHeader()))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.following").value(false))
+                .andExpect(jsonPath("$.followerCount").value(7));
     }
 
     @Test
@@ -114,6 +130,21 @@ class UserControllerTest extends BaseTest {
                 .andExpect(jsonPath("$.length()").value(2));
     }
 
+    @Test
+    void scrollUserFollowers_ShouldReturnCardPage() throws Exception {
+        // Arrange
+        when(userService.scrollFollowers(testUser.getId(), IdCursor.START, 20)).thenReturn(
+            new CursorPage<>(List.of(new UserCard(5L, "Jane Doe", null, 3)), new IdCursor(5L).encode(), true));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{id}/followers/scroll", testUser.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Jane Doe"))
+                .andExpect(jsonPath("$.content[0].followers").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value(new IdCursor(5L).encode()))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
     @Test
     void searchUsers_ShouldReturnMatchingUsers() throws Exception {
         // Arrange
@@ -130,6 +161,66 @@ class UserControllerTest extends BaseTest {
                 .andExpect(jsonPath("$.length()").value(2));
     }
 
+    @Test
+    void typeahead_ShouldReturnUserCards() throws Exception {
+        // Arrange
+        when(userService.suggestUsers("jo", 5)).thenReturn(List.of(
+            new UserCard(2L, "John Smith", null, 42)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/typeahead")
+                .param("q", "jo")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("John Smith"))
+                .andExpect(jsonPath("$[0].followerCount").value(42))
+                .andExpect(jsonPath("$[0].followers").doesNotExist());
+    }
+
+    @Test
+    void getFollowSuggestions_ShouldReturnUserCards() throws Exception {
+        // Arrange
+        when(userService.suggestFollows(testUser.getId(), 3)).thenReturn(List.of(
+            new UserCard(4L, "Jane Doe", null, 7)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/me/suggestions")
+                .header("Authorization", getAuthHeader())
+                .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(4));
+    }
+
+    @Test
+    void checkIfFollowingAny_ShouldReturnFollowedIds() throws Exception {
+        // Arrange
+        when(userService.followedAmong(testUser.getId(), List.of(2L, 3L, 4L))).thenReturn(Set.of(3L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/is-following")
+                .header("Authorization", getAuthHeader())
+                .param("ids", "2,3,4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0]").value(3));
+    }
+
+    @Test
+    void checkIfFollowingAny_TooManyIds_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(userService.followedAmong(eq(testUser.getId()), any()))
+            .thenThrow(new BadRequestException("At most 100 user ids can be requested at once"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/is-following")
+                .header("Authorization", getAuthHeader())
+                .param("ids", "2,3,4"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("At most 100 user ids can be requested at once"));
+    }
+
     @Test
     void checkIfFollowing_ShouldReturnCorrectStatus() throws Exception {
         // Arrange
@@ -1,6 +1,7 @@
 package com.skillsharing.security;
 
 import com.skillsharing.config.AppProperties;
+import com.skillsharing.service.LoginWarmupService;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -32,6 +33,9 @@ class OAuth2AuthenticationSuccessHandlerTest {
     @Mock
     private HttpCookieOAuth2AuthorizationRequestRepository httpCookieOAuth2AuthorizationRequestRepository;
 
+    @Mock
+    private LoginWarmupService loginWarmupService;
+
     @Mock
     private HttpServletRequest request;
 
@@ -85,6 +89,7 @@ class OAuth2AuthenticationSuccessHandlerTest {
         verify(response).sendRedirect(argThat(url -> 
             url.startsWith(redirectUri) && url.contains("token=" + token)
         ));
+        verify(loginWarmupService).warmUpAsync(userPrincipal.getId());
         verify(httpCookieOAuth2AuthorizationRequestRepository)
             .removeAuthorizationRequestCookies(request, response);
     }
@@ -138,5 +143,6 @@ class OAuth2AuthenticationSuccessHandlerTest {
 
         // Assert
         verify(response, never()).sendRedirect(any());
+        verify(loginWarmupService, never()).warmUpAsync(any());
     }
 }
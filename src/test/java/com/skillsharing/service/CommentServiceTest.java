@@ -1,5 +1,7 @@
 package com.skillsharing.service;
 
+import com.skillsharing.dto.CursorPage;
+import com.skillsharing.dto.KeysetCursor;
 import com.skillsharing.exception.ResourceNotFoundException;
 import com.skillsharing.model.Comment;
 import com.skillsharing.model.Post;
@@ -16,6 +18,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -41,6 +45,18 @@ class CommentServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private FeedRankingService feedRankingService;
+
+    @Mock
+    private EngagementCounterService engagementCounterService;
+
+    @Mock
+    private TrendingService trendingService;
+
+    @Mock
+    private HotPostsService hotPostsService;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -86,6 +102,31 @@ class CommentServiceTest {
         assertEquals(testPost, result.getPost());
         verify(commentRepository).save(any(Comment.class));
         verify(notificationService).createNotification(any(), any(), any(), eq("COMMENT"));
+        verify(feedRankingService).recordComment(testPost);
+        verify(trendingService).recordComment(testPost.getId());
+        verify(hotPostsService).recordComment(testPost.getId());
+        verify(engagementCounterService).incrementComments(testPost.getId());
+    }
+
+    @Test
+    void createComment_InTransaction_ShouldUpdateCountersOnlyAfterCommit() {
+        // Arrange
+        when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            commentService.createComment(1L, 1L, "Test comment content");
+
+            // Assert
+            verifyNoInteractions(engagementCounterService, feedRankingService, trendingService, hotPostsService);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(engagementCounterService).incrementComments(testPost.getId());
+            verify(hotPostsService).recordComment(testPost.getId());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -170,6 +211,23 @@ class CommentServiceTest {
         assertEquals(testComment.getContent(), result.getContent().get(0).getContent());
     }
 
+    @Test
+    void scrollPostComments_ShouldSeekPastCursor() {
+        // Arrange
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.now(), 50L);
+        when(postRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findByPostIdBefore(eq(1L), eq(cursor.createdAt()), eq(50L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(testComment));
+
+        // Act
+        CursorPage<Comment> result = commentService.scrollPostComments(1L, cursor, 20);
+
+        // Assert
+        assertEquals(1, result.content().size());
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+    }
+
     @Test
     void getUserComments_ShouldReturnComments() {
         // Arrange
@@ -198,6 +256,7 @@ class CommentServiceTest {
 
         // Assert
         verify(commentRepository).delete(testComment);
+        verify(engagementCounterService).decrementComments(testPost.getId());
     }
 
     @Test
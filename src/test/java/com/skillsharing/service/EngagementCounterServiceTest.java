@@ -0,0 +1,178 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.event.PostLikeChangedEvent;
+import com.skillsharing.model.Post;
+import com.skillsharing.model.User;
+import com.skillsharing.repository.PostRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EngagementCounterServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AppProperties appProperties;
+    private EngagementCounterService engagementCounterService;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        engagementCounterService = new EngagementCounterService(postRepository, jdbcTemplate, transactionManager,
+            appProperties);
+    }
+
+    @Test
+    void getLikesCount_ShouldAddUnflushedDeltaToStoredCount() {
+        // Arrange
+        when(postRepository.findLikeCountById(1L)).thenReturn(Optional.of(10L));
+        engagementCounterService.incrementLikes(1L);
+        engagementCounterService.incrementLikes(1L);
+        engagementCounterService.decrementLikes(1L);
+
+        // Act
+        long result = engagementCounterService.getLikesCount(1L);
+
+        // Assert
+        assertEquals(11L, result);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void onPostLikeChanged_ShouldAdjustLikeDelta() {
+        // Arrange
+        Post post = new Post();
+        post.setId(1L);
+        when(postRepository.findLikeCountById(1L)).thenReturn(Optional.of(3L));
+
+        // Act
+        engagementCounterService.onPostLikeChanged(new PostLikeChangedEvent(post, new User(), true));
+        engagementCounterService.onPostLikeChanged(new PostLikeChangedEvent(post, new User(), true));
+        engagementCounterService.onPostLikeChanged(new PostLikeChangedEvent(post, new User(), false));
+
+        // Assert
+        assertEquals(4L, engagementCounterService.getLikesCount(1L));
+    }
+
+    @Test
+    void getCounts_ShouldReadAllPostsInOneQuery() {
+        // Arrange
+        List<Object[]> rows = List.of(new Object[]{1L, 4L, 1L}, new Object[]{2L, 0L, 0L});
+        when(postRepository.findEngagementCountsByIds(List.of(1L, 2L, 3L))).thenReturn(rows);
+        engagementCounterService.incrementComments(2L);
+
+        // Act
+        Map<Long, EngagementCounterService.Counts> result = engagementCounterService.getCounts(List.of(1L, 2L, 3L));
+
+        // Assert
+        assertEquals(new EngagementCounterService.Counts(4, 1), result.get(1L));
+        assertEquals(new EngagementCounterService.Counts(0, 1), result.get(2L));
+        assertFalse(result.containsKey(3L));
+    }
+
+    @Test
+    void getCommentsCount_UnknownPost_ShouldThrowException() {
+        // Arrange
+        when(postRepository.findCommentCountById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> engagementCounterService.getCommentsCount(99L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteOneBatchRowPerChangedPost() {
+        // Arrange
+        for (int i = 0; i < 50; i++) {
+            engagementCounterService.incrementLikes(1L);
+        }
+        engagementCounterService.incrementComments(2L);
+        engagementCounterService.incrementLikes(3L);
+        engagementCounterService.decrementLikes(3L);
+
+        // Act
+        int flushed = engagementCounterService.flush();
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(2, flushed);
+        assertEquals(2, rows.getValue().size());
+        assertTrue(rows.getValue().stream().anyMatch(row -> row[0].equals(50L) && row[1].equals(0L) && row[2].equals(1L)));
+        assertTrue(rows.getValue().stream().anyMatch(row -> row[0].equals(0L) && row[1].equals(1L) && row[2].equals(2L)));
+        assertEquals(0, engagementCounterService.flush());
+    }
+
+    @Test
+    void flush_Failure_ShouldKeepDeltasForNextFlush() {
+        // Arrange
+        when(postRepository.findLikeCountById(1L)).thenReturn(Optional.of(0L));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[]{1});
+        engagementCounterService.incrementLikes(1L);
+
+        // Act
+        int first = engagementCounterService.flush();
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(1L, engagementCounterService.getLikesCount(1L));
+        assertEquals(1, engagementCounterService.flush());
+    }
+
+    @Test
+    void reconcile_ShouldRecomputeStoredCountsFromRows() {
+        // Arrange
+        when(jdbcTemplate.update(anyString())).thenReturn(3);
+
+        // Act
+        engagementCounterService.reconcile();
+
+        // Assert
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(sql.capture());
+        assertTrue(sql.getValue().contains("FROM post_likes"));
+        assertTrue(sql.getValue().contains("FROM comments"));
+        assertTrue(sql.getValue().contains("WHERE like_count <>"));
+    }
+
+    @Test
+    void reconcile_Disabled_ShouldNotTouchPosts() {
+        // Arrange
+        appProperties.getEngagement().setReconcileOnStartup(false);
+        engagementCounterService = new EngagementCounterService(postRepository, jdbcTemplate, transactionManager,
+            appProperties);
+
+        // Act
+        engagementCounterService.reconcile();
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,180 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.model.Post;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class FeedRankingServiceTest {
+
+    private AppProperties appProperties;
+    private FeedRankingService feedRankingService;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        feedRankingService = new FeedRankingService(mock(JdbcTemplate.class), appProperties);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void rank_WithoutEngagement_ShouldKeepRecencyOrder() {
+        // Arrange
+        Post older = createPost(1L, now.minusHours(5), Post.PostType.SKILL_SHARING);
+        Post newer = createPost(2L, now.minusHours(1), Post.PostType.SKILL_SHARING);
+
+        // Act
+        List<Post> result = feedRankingService.rank(List.of(older, newer), 10);
+
+        // Assert
+        assertEquals(List.of(newer, older), result);
+    }
+
+    @Test
+    void rank_ShouldPreferLearningPlansOfTheSameAge() {
+        // Arrange
+        Post skill = createPost(1L, now, Post.PostType.SKILL_SHARING);
+        Post plan = createPost(2L, now, Post.PostType.LEARNING_PLAN);
+
+        // Act
+        List<Post> result = feedRankingService.rank(List.of(skill, plan), 1);
+
+        // Assert
+        assertEquals(List.of(plan), result);
+    }
+
+    @Test
+    void recordComment_ShouldLiftOlderPostAboveNewerOne() {
+        // Arrange
+        Post older = createPost(1L, now.minusHours(6), Post.PostType.SKILL_SHARING);
+        Post newer = createPost(2L, now.minusHours(1), Post.PostType.SKILL_SHARING);
+
+        // Act
+        feedRankingService.recordComment(older);
+        List<Post> result = feedRankingService.rank(List.of(newer, older), 2);
+
+        // Assert
+        assertEquals(List.of(older, newer), result);
+    }
+
+    @Test
+    void addEngagement_RecentActivityShouldOutweighOldActivity() {
+        // Arrange
+        Post oldBuzz = createPost(1L, now.minusDays(3), Post.PostType.SKILL_SHARING);
+        Post newBuzz = createPost(2L, now.minusDays(3), Post.PostType.SKILL_SHARING);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            feedRankingService.addEngagement(oldBuzz, 1.0, now.minusDays(3));
+        }
+        feedRankingService.addEngagement(newBuzz, 1.0, now);
+
+        // Assert
+        assertTrue(feedRankingService.logScore(newBuzz) > feedRankingService.logScore(oldBuzz));
+    }
+
+    @Test
+    void recordUnlike_ShouldNotDropBelowCreationScore() {
+        // Arrange
+        Post post = createPost(1L, now.minusHours(1), Post.PostType.SKILL_SHARING);
+        double base = feedRankingService.logScore(post);
+        feedRankingService.recordLike(post);
+
+        // Act
+        feedRankingService.recordUnlike(post);
+        feedRankingService.recordUnlike(post);
+
+        // Assert
+        assertTrue(feedRankingService.logScore(post) >= base);
+        assertTrue(feedRankingService.logScore(post) < base + 1e-6);
+    }
+
+    @Test
+    void recordUnlike_OldLikesOnly_ShouldRemoveNoMoreThanOneLikesShare() {
+        // Arrange
+        Post post = createPost(1L, now.minusDays(2), Post.PostType.SKILL_SHARING);
+        Post other = createPost(2L, now.minusDays(2), Post.PostType.SKILL_SHARING);
+        for (int i = 0; i < 10; i++) {
+            feedRankingService.addEngagement(post, 1.0, now.minusDays(2));
+        }
+        for (int i = 0; i < 9; i++) {
+            feedRankingService.addEngagement(other, 1.0, now.minusDays(2));
+        }
+        post.setLikeCount(10);
+
+        // Act
+        feedRankingService.recordUnlike(post);
+
+        // Assert
+        assertEquals(feedRankingService.logScore(other), feedRankingService.logScore(post), 1e-9);
+    }
+
+    @Test
+    void seed_ShouldRestoreScoresFromStoredCounters() {
+        // Arrange
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(database);
+            jdbc.execute("CREATE TABLE posts (id BIGINT PRIMARY KEY, post_type VARCHAR(32), created_at TIMESTAMP, " +
+                "like_count BIGINT, comment_count BIGINT)");
+            String insert = "INSERT INTO posts VALUES (?, 'SKILL_SHARING', ?, ?, ?)";
+            jdbc.update(insert, 1L, Timestamp.valueOf(now.minusHours(6)), 20L, 5L);
+            jdbc.update(insert, 2L, Timestamp.valueOf(now.minusHours(1)), 0L, 0L);
+            jdbc.update(insert, 3L, Timestamp.valueOf(now.minusDays(30)), 50L, 0L);
+            feedRankingService = new FeedRankingService(jdbc, appProperties);
+            Post engaged = createPost(1L, now.minusHours(6), Post.PostType.SKILL_SHARING);
+            Post quiet = createPost(2L, now.minusHours(1), Post.PostType.SKILL_SHARING);
+
+            // Act
+            feedRankingService.seed();
+
+            // Assert
+            assertEquals(1, feedRankingService.trackedPosts());
+            assertEquals(List.of(engaged, quiet), feedRankingService.rank(List.of(quiet, engaged), 2));
+        } finally {
+            database.shutdown();
+        }
+    }
+
+    @Test
+    void addEngagement_OverCap_ShouldPruneIrrelevantScores() {
+        // Arrange
+        appProperties.getFeed().setRankingMaxTrackedPosts(2);
+        feedRankingService = new FeedRankingService(mock(JdbcTemplate.class), appProperties);
+        Post stale1 = createPost(1L, now.minusDays(60), Post.PostType.SKILL_SHARING);
+        Post stale2 = createPost(2L, now.minusDays(60), Post.PostType.SKILL_SHARING);
+        Post fresh = createPost(3L, now, Post.PostType.SKILL_SHARING);
+        feedRankingService.addEngagement(stale1, 1.0, now.minusDays(60));
+        feedRankingService.addEngagement(stale2, 1.0, now.minusDays(60));
+
+        // Act
+        feedRankingService.addEngagement(fresh, 1.0, now);
+
+        // Assert
+        assertEquals(1, feedRankingService.trackedPosts());
+    }
+
+    private Post createPost(Long id, LocalDateTime createdAt, Post.PostType type) {
+        Post post = new Post();
+        post.setId(id);
+        post.setDescription("Post " + id);
+        post.setPostType(type);
+        post.setCreatedAt(createdAt);
+        return post;
+    }
+}
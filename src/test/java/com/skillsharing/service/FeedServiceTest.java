@@ -0,0 +1,450 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.dto.CursorPage;
+import com.skillsharing.dto.KeysetCursor;
+import com.skillsharing.exception.TooManyRequestsException;
+import com.skillsharing.model.Post;
+import com.skillsharing.model.User;
+import com.skillsharing.repository.FeedEntryRepository;
+import com.skillsharing.repository.PostRepository;
+import com.skillsharing.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeedServiceTest {
+
+    @Mock
+    private FeedEntryRepository feedEntryRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private AppProperties appProperties = new AppProperties();
+
+    @Spy
+    private RecentFeedCache recentFeedCache = new RecentFeedCache(new AppProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private FeedRankingService feedRankingService = new FeedRankingService(mock(JdbcTemplate.class), new AppProperties());
+
+    @Mock
+    private SocialGraph socialGraph;
+
+    @InjectMocks
+    private FeedService feedService;
+
+    private User author;
+    private Post testPost;
+
+    @BeforeEach
+    void setUp() {
+        author = new User();
+        author.setId(2L);
+        author.setName("Author");
+
+        testPost = new Post();
+        testPost.setId(10L);
+        testPost.setUser(author);
+        testPost.setDescription("Test post description");
+        testPost.setPostType(Post.PostType.SKILL_SHARING);
+        testPost.setCreatedAt(LocalDateTime.now());
+    }
+
+    @Test
+    void fanOut_ShouldWriteEntriesForAuthorFollowers() {
+        // Arrange
+        when(userRepository.countFollowersByUserId(2L)).thenReturn(3L);
+
+        // Act
+        feedService.fanOut(testPost);
+
+        // Assert
+        verify(feedEntryRepository).fanOutToFollowers(10L, 2L, testPost.getCreatedAt());
+    }
+
+    @Test
+    void fanOut_HighFollowerAuthor_ShouldSkipFanOut() {
+        // Arrange
+        appProperties.getFeed().setCelebrityFollowerThreshold(100);
+        when(userRepository.countFollowersByUserId(2L)).thenReturn(100L);
+
+        // Act
+        feedService.fanOut(testPost);
+
+        // Assert
+        verify(feedEntryRepository, never()).fanOutToFollowers(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void getFeed_ShouldReadMaterializedFeed() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 20);
+        when(userRepository.findFollowedIdsWithMinFollowers(eq(1L), anyLong())).thenReturn(List.of());
+        when(feedEntryRepository.findFeedPosts(eq(1L), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(testPost)));
+
+        // Act
+        Page<Post> result = feedService.getFeed(1L, pageable);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertEquals(testPost.getId(), result.getContent().get(0).getId());
+    }
+
+    @Test
+    void getFeed_WithPulledAuthors_ShouldMergeByRecency() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Post pushedNew = createPost(1L, now.minusMinutes(1));
+        Post pushedOld = createPost(2L, now.minusMinutes(30));
+        Post pulledMid = createPost(3L, now.minusMinutes(10));
+        Pageable pageable = PageRequest.of(0, 2);
+
+        when(userRepository.findFollowedIdsWithMinFollowers(eq(1L), anyLong())).thenReturn(List.of(5L));
+        when(feedEntryRepository.findFeedPostsExcludingAuthors(eq(1L), eq(List.of(5L)), any(Pageable.class)))
+                .thenReturn(List.of(pushedNew, pushedOld));
+        when(postRepository.findRecentByUserId(eq(5L), any(Pageable.class))).thenReturn(List.of(pulledMid));
+        when(feedEntryRepository.countFeedEntriesExcludingAuthors(1L, List.of(5L))).thenReturn(2L);
+        when(postRepository.countByUserIds(List.of(5L))).thenReturn(1L);
+
+        // Act
+        Page<Post> result = feedService.getFeed(1L, pageable);
+
+        // Assert
+        assertEquals(List.of(pushedNew, pulledMid), result.getContent());
+        assertEquals(3, result.getTotalElements());
+    }
+
+    @Test
+    void scrollFeed_ShouldReturnNextCursorWhenMoreRowsExist() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Post first = createPost(3L, now.minusMinutes(1));
+        Post second = createPost(2L, now.minusMinutes(2));
+        Post extra = createPost(1L, now.minusMinutes(3));
+        KeysetCursor cursor = new KeysetCursor(now, 4L);
+
+        when(userRepository.findFollowedIdsWithMinFollowers(eq(1L), anyLong())).thenReturn(List.of());
+        when(feedEntryRepository.findFeedPostsBefore(eq(1L), eq(cursor.createdAt()), eq(cursor.id()), any(Pageable.class)))
+                .thenReturn(List.of(first, second, extra));
+
+        // Act
+        CursorPage<Post> result = feedService.scrollFeed(1L, cursor, 2);
+
+        // Assert
+        assertEquals(List.of(first, second), result.content());
+        assertTrue(result.hasNext());
+        KeysetCursor next = KeysetCursor.decode(result.nextCursor());
+        assertEquals(second.getCreatedAt(), next.createdAt());
+        assertEquals(second.getId(), next.id());
+    }
+
+    @Test
+    void scrollFeed_LastPage_ShouldHaveNoNextCursor() {
+        // Arrange
+        Post only = createPost(1L, LocalDateTime.now());
+        when(userRepository.findFollowedIdsWithMinFollowers(eq(1L), anyLong())).thenReturn(List.of());
+        when(feedEntryRepository.findFeedPostsBefore(eq(1L), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(only));
+
+        // Act
+        CursorPage<Post> result = feedService.scrollFeed(1L, new KeysetCursor(LocalDateTime.now(), 2L), 20);
+
+        // Assert
+        assertEquals(1, result.content().size());
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void getFeed_SecondRead_ShouldBeServedFromCache() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 20);
+        when(userRepository.findFollowedIdsWithMinFollowers(eq(1L), anyLong())).thenReturn(List.of());
+        when(feedEntryRepository.findFeedPosts(eq(1L), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(testPost)));
+        when(postRepository.findAllByIdInOrder(List.of(10L))).thenReturn(List.of(testPost));
+
+        // Act
+        feedService.getFeed(1L, pageable);
+        Page<Post> result = feedService.getFeed(1L, pageable);
+
+        // Assert
+        assertEquals(List.of(testPost), result.getContent());
+        assertEquals(1, result.getTotalElements());
+        verify(feedEntryRepository, times(1)).findFeedPosts(eq(1L), any(Pageable.class));
+        assertEquals(1, recentFeedCache.hitCount());
+    }
+
+    @Test
+    void getFeed_CachedPostDeleted_ShouldReload() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 20);
+        when(userRepository.findFollowedIdsWithMinFollowers(eq(1L), anyLong())).thenReturn(List.of());
+        when(feedEntryRepository.findFeedPosts(eq(1L), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testPost)), new PageImpl<>(List.of()));
+        when(postRepository.findAllByIdInOrder(List.of(10L))).thenReturn(List.of());
+
+        // Act
+        feedService.getFeed(1L, pageable);
+        Page<Post> result = feedService.getFeed(1L, pageable);
+
+        // Assert
+        assertTrue(result.getContent().isEmpty());
+        verify(feedEntryRepository, times(2)).findFeedPosts(eq(1L), any(Pageable.class));
+    }
+
+    @Test
+    void fanOut_ShouldPushIntoCachedFollowerFeeds() {
+        // Arrange
+        Post older = createPost(9L, testPost.getCreatedAt().minusMinutes(5));
+        when(userRepository.findFollowedIdsWithMinFollowers(eq(1L), anyLong())).thenReturn(List.of());
+        when(feedEntryRepository.findFeedPosts(eq(1L), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(older)));
+        when(userRepository.countFollowersByUserId(2L)).thenReturn(3L);
+        when(userRepository.findFollowerIdsByUserId(2L)).thenReturn(List.of(1L));
+        when(postRepository.findAllByIdInOrder(List.of(10L))).thenReturn(List.of(testPost));
+        feedService.getFeed(1L, PageRequest.of(0, 20));
+
+        // Act
+        feedService.fanOut(testPost);
+        CursorPage<Post> result = feedService.scrollFeed(1L, KeysetCursor.START, 1);
+
+        // Assert
+        assertEquals(List.of(testPost), result.content());
+        assertTrue(result.hasNext());
+        verify(feedEntryRepository, times(1)).findFeedPosts(eq(1L), any(Pageable.class));
+    }
+
+    @Test
+    void fanOut_InsideTransaction_ShouldTouchCacheOnlyAfterCommit() {
+        // Arrange
+        long loadedVersion = recentFeedCache.currentVersion();
+        when(userRepository.countFollowersByUserId(2L)).thenReturn(3L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            feedService.fanOut(testPost);
+
+            // Assert
+            verify(recentFeedCache, never()).markFannedOut();
+            verify(recentFeedCache, never()).pushIfPresent(anyLong(), anyLong());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(recentFeedCache).markFannedOut();
+            // A load that started before the commit may lack the post and is dropped
+            recentFeedCache.put(1L, new long[] {9L}, 1, new long[0], loadedVersion);
+            assertFalse(recentFeedCache.contains(1L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void fanOut_GraphReady_ShouldUseGraphForFollowers() {
+        // Arrange
+        Post older = createPost(9L, testPost.getCreatedAt().minusMinutes(5));
+        when(socialGraph.isReady()).thenReturn(true);
+        when(socialGraph.followingIds(1L)).thenReturn(new long[] {2L});
+        when(socialGraph.followerCount(2L)).thenReturn(3);
+        when(socialGraph.followerIds(2L)).thenReturn(new long[] {1L});
+        when(feedEntryRepository.findFeedPosts(eq(1L), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(older)));
+        when(postRepository.findAllByIdInOrder(List.of(10L))).thenReturn(List.of(testPost));
+        feedService.getFeed(1L, PageRequest.of(0, 20));
+
+        // Act
+        feedService.fanOut(testPost);
+        CursorPage<Post> result = feedService.scrollFeed(1L, KeysetCursor.START, 1);
+
+        // Assert
+        assertEquals(List.of(testPost), result.content());
+        verify(userRepository, never()).countFollowersByUserId(anyLong());
+        verify(userRepository, never()).findFollowerIdsByUserId(anyLong());
+        verify(userRepository, never()).findFollowedIdsWithMinFollowers(anyLong(), anyLong());
+    }
+
+    @Test
+    void getRankedFeed_ShouldRankCandidateWindowByEngagement() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Post newest = createPost(3L, now.minusMinutes(1));
+        Post engaged = createPost(2L, now.minusHours(2));
+        Post oldest = createPost(1L, now.minusHours(3));
+        when(userRepository.findFollowedIdsWithMinFollowers(eq(1L), anyLong())).thenReturn(List.of());
+        when(feedEntryRepository.findFeedPosts(eq(1L), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(newest, engaged, oldest)));
+        for (int i = 0; i < 5; i++) {
+            feedRankingService.recordComment(engaged);
+        }
+
+        // Act
+        List<Post> result = feedService.getRankedFeed(1L, 2);
+
+        // Assert
+        assertEquals(List.of(engaged, newest), result);
+    }
+
+    @Test
+    void removePost_ShouldDropEntriesAndScore() {
+        // Act
+        feedService.removePost(10L);
+
+        // Assert
+        verify(feedEntryRepository).deleteByPostId(10L);
+        verify(feedRankingService).forget(10L);
+    }
+
+    @Test
+    void warmFeed_ShouldLoadFeedHeadOnlyOnce() {
+        // Arrange
+        when(userRepository.findFollowedIdsWithMinFollowers(eq(1L), anyLong())).thenReturn(List.of());
+        when(feedEntryRepository.findFeedPosts(eq(1L), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(testPost)));
+
+        // Act
+        feedService.warmFeed(1L);
+        feedService.warmFeed(1L);
+
+        // Assert
+        verify(feedEntryRepository, times(1)).findFeedPosts(eq(1L), any(Pageable.class));
+        assertTrue(recentFeedCache.contains(1L));
+    }
+
+    @Test
+    void mergeNewestFirst_ShouldSkipOffsetAndDropDuplicates() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Post a = createPost(1L, now.minusMinutes(1));
+        Post b = createPost(2L, now.minusMinutes(2));
+        Post c = createPost(3L, now.minusMinutes(3));
+        Post d = createPost(4L, now.minusMinutes(4));
+
+        // Act
+        List<Post> result = FeedService.mergeNewestFirst(
+            List.of(List.of(a, c), List.of(b, c, d), List.of()), 1, 10);
+
+        // Assert
+        assertEquals(List.of(b, c, d), result);
+    }
+
+    @Test
+    void onFollow_ShouldBackfillAuthorPosts() {
+        // Arrange
+        when(userRepository.countFollowersByUserId(2L)).thenReturn(3L);
+
+        // Act
+        feedService.onFollow(1L, 2L);
+
+        // Assert
+        verify(feedEntryRepository).backfillFromAuthor(1L, 2L);
+        verify(recentFeedCache).evict(1L);
+    }
+
+    @Test
+    void onUnfollow_ShouldRemoveAuthorEntries() {
+        // Act
+        feedService.onUnfollow(1L, 2L);
+
+        // Assert
+        verify(feedEntryRepository).deleteByRecipientIdAndAuthorId(1L, 2L);
+        verify(feedEntryRepository, never()).backfillAuthorToFollowers(any());
+    }
+
+    @Test
+    void onUnfollow_AuthorDropsBelowThreshold_ShouldBackfillTheirFollowers() {
+        // Arrange
+        appProperties.getFeed().setCelebrityFollowerThreshold(100);
+        when(userRepository.countFollowersByUserId(2L)).thenReturn(99L);
+
+        // Act
+        feedService.onUnfollow(1L, 2L);
+
+        // Assert
+        verify(feedEntryRepository).deleteByRecipientIdAndAuthorId(1L, 2L);
+        verify(feedEntryRepository).backfillAuthorToFollowers(2L);
+    }
+
+    @Test
+    void rebuildFeed_ShouldDropStaleEntriesThenBackfillPushedAuthors() {
+        // Arrange
+        when(feedEntryRepository.backfillFromFollowing(1L, 10000L)).thenReturn(5);
+
+        // Act
+        int written = feedService.rebuildFeed(1L);
+
+        // Assert
+        assertEquals(5, written);
+        var inOrder = inOrder(feedEntryRepository);
+        inOrder.verify(feedEntryRepository).deleteStaleEntries(1L, 10000L);
+        inOrder.verify(feedEntryRepository).backfillFromFollowing(1L, 10000L);
+    }
+
+    @Test
+    void rebuildFeed_AgainWithinCooldown_ShouldBeRejected() {
+        // Arrange
+        feedService.rebuildFeed(1L);
+
+        // Act & Assert
+        assertThrows(TooManyRequestsException.class, () -> feedService.rebuildFeed(1L));
+        feedService.rebuildFeed(2L);
+        verify(feedEntryRepository, times(1)).backfillFromFollowing(1L, 10000L);
+        verify(feedEntryRepository, times(1)).backfillFromFollowing(2L, 10000L);
+    }
+
+    @Test
+    void backfillFeeds_NoEntriesYet_ShouldBackfillEveryFeed() {
+        // Arrange
+        when(feedEntryRepository.findAnyIds(any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        feedService.backfillFeeds();
+
+        // Assert
+        verify(feedEntryRepository).backfillAll(10000L);
+    }
+
+    @Test
+    void backfillFeeds_FeedsAlreadyMaterialized_ShouldDoNothing() {
+        // Arrange
+        when(feedEntryRepository.findAnyIds(any(Pageable.class))).thenReturn(List.of(1L));
+
+        // Act
+        feedService.backfillFeeds();
+
+        // Assert
+        verify(feedEntryRepository, never()).backfillAll(anyLong());
+    }
+
+    private Post createPost(Long id, LocalDateTime createdAt) {
+        Post post = new Post();
+        post.setId(id);
+        post.setUser(author);
+        post.setDescription("Post " + id);
+        post.setPostType(Post.PostType.SKILL_SHARING);
+        post.setCreatedAt(createdAt);
+        return post;
+    }
+}
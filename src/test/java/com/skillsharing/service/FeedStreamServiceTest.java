@@ -0,0 +1,135 @@
+package com.skillsharing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillsharing.dto.CursorPage;
+import com.skillsharing.dto.KeysetCursor;
+import com.skillsharing.model.Post;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeedStreamServiceTest {
+
+    @Mock
+    private FeedService feedService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FeedStreamService feedStreamService;
+
+    @BeforeEach
+    void setUp() {
+        feedStreamService = new FeedStreamService(
+            feedService, new ObjectMapper().findAndRegisterModules(), transactionManager);
+    }
+
+    @Test
+    void streamFeed_ShouldWriteOneJsonLinePerPostAcrossBatches() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        List<Post> firstBatch = new ArrayList<>();
+        for (long id = 100; id > 100 - FeedStreamService.BATCH_SIZE; id--) {
+            firstBatch.add(createPost(id, now.minusMinutes(100 - id)));
+        }
+        Post last = firstBatch.get(firstBatch.size() - 1);
+        Post tail = createPost(1L, now.minusDays(1));
+        String cursor = FeedService.cursorOf(last);
+
+        when(feedService.scrollFeed(1L, KeysetCursor.START, FeedStreamService.BATCH_SIZE))
+                .thenReturn(new CursorPage<>(firstBatch, cursor, true));
+        when(feedService.scrollFeed(eq(1L), eq(KeysetCursor.decode(cursor)), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(tail), null, false));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        int written = feedStreamService.streamFeed(1L, KeysetCursor.START, 100, FeedStreamService.Format.NDJSON, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(FeedStreamService.BATCH_SIZE + 1, written);
+        assertEquals(written, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":100"));
+        assertTrue(lines[lines.length - 1].startsWith("{\"id\":1,"));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void streamFeed_ShouldWriteToClientOnlyAfterTransactionEnds() throws Exception {
+        // Arrange
+        Post post = createPost(1L, LocalDateTime.now());
+        when(feedService.scrollFeed(1L, KeysetCursor.START, FeedStreamService.BATCH_SIZE))
+                .thenReturn(new CursorPage<>(List.of(post), null, false));
+        OutputStream out = spy(new ByteArrayOutputStream());
+
+        // Act
+        feedStreamService.streamFeed(1L, KeysetCursor.START, FeedStreamService.BATCH_SIZE,
+                FeedStreamService.Format.NDJSON, out);
+
+        // Assert
+        InOrder order = inOrder(transactionManager, out);
+        order.verify(transactionManager).commit(any());
+        order.verify(out).write(any(byte[].class));
+        order.verify(out).flush();
+    }
+
+    @Test
+    void streamFeed_ShouldStopAtLimit() {
+        // Arrange
+        Post post = createPost(5L, LocalDateTime.now());
+        when(feedService.scrollFeed(1L, KeysetCursor.START, 1))
+                .thenReturn(new CursorPage<>(List.of(post), FeedService.cursorOf(post), true));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        int written = feedStreamService.streamFeed(1L, KeysetCursor.START, 1, FeedStreamService.Format.NDJSON, out);
+
+        // Assert
+        assertEquals(1, written);
+        verify(feedService, times(1)).scrollFeed(any(), any(), anyInt());
+    }
+
+    @Test
+    void streamFeed_Sse_ShouldUseCursorAsEventId() {
+        // Arrange
+        Post post = createPost(5L, LocalDateTime.now());
+        when(feedService.scrollFeed(1L, KeysetCursor.START, 20))
+                .thenReturn(new CursorPage<>(List.of(post), null, false));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        feedStreamService.streamFeed(1L, KeysetCursor.START, 20, FeedStreamService.Format.SSE, out);
+
+        // Assert
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.startsWith("id: " + FeedService.cursorOf(post) + "\ndata: {\"id\":5"));
+        assertTrue(body.endsWith("}\n\n"));
+    }
+
+    private Post createPost(Long id, LocalDateTime createdAt) {
+        Post post = new Post();
+        post.setId(id);
+        post.setDescription("Post " + id);
+        post.setPostType(Post.PostType.SKILL_SHARING);
+        post.setCreatedAt(createdAt);
+        return post;
+    }
+}
@@ -0,0 +1,152 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FollowSuggestionServiceTest {
+
+    @Mock
+    private SocialGraph socialGraph;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, long[]> following = new HashMap<>();
+    private ForkJoinPool pool;
+    private AppProperties appProperties;
+    private FollowSuggestionService followSuggestionService;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+        appProperties = new AppProperties();
+        followSuggestionService = new FollowSuggestionService(socialGraph, jdbcTemplate, pool, appProperties);
+        lenient().when(socialGraph.followingIds(anyLong()))
+            .thenAnswer(invocation -> following.getOrDefault(invocation.<Long>getArgument(0), new long[0]));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void rebuild_ShouldRankByMutualFollowsTopicsAndCoLikes() {
+        // Arrange
+        following.put(1L, new long[]{2L, 3L});
+        following.put(2L, new long[]{4L, 5L});
+        following.put(3L, new long[]{1L, 4L});
+
+        // Act
+        followSuggestionService.rebuild(sampleSignals());
+
+        // Assert: 4 is followed by two of user 1's accounts, 5 by one and
+        // shares a topic, 6 only shares a topic and a liked post
+        assertArrayEquals(new long[]{4L, 5L, 6L}, followSuggestionService.suggestions(1L, 10));
+        assertArrayEquals(new long[]{4L, 5L}, followSuggestionService.suggestions(1L, 2));
+        assertArrayEquals(new long[0], followSuggestionService.suggestions(4L, 10));
+    }
+
+    @Test
+    void rebuild_WideFanout_ShouldSkipTopicsAndPostsReachingTooManyUsers() {
+        // Arrange
+        appProperties.getGraph().setSuggestionMaxFanout(2);
+        followSuggestionService = new FollowSuggestionService(socialGraph, jdbcTemplate, pool, appProperties);
+        following.put(1L, new long[]{2L});
+        following.put(2L, new long[]{4L, 5L});
+
+        // Act
+        followSuggestionService.rebuild(sampleSignals());
+
+        // Assert: "java" is shared by three users, post 100 liked by two
+        assertArrayEquals(new long[]{4L, 5L, 6L}, followSuggestionService.suggestions(1L, 10));
+        assertArrayEquals(new long[]{1L}, followSuggestionService.suggestions(6L, 10));
+    }
+
+    @Test
+    void rebuild_ManyUsers_ShouldRankEveryPartitionAndKeepSuggestionsPerUser() {
+        // Arrange
+        appProperties.getGraph().setSuggestionsPerUser(3);
+        followSuggestionService = new FollowSuggestionService(socialGraph, jdbcTemplate, pool, appProperties);
+        int size = FollowSuggestionService.LEAF_SIZE * 3;
+        FollowSuggestionService.Signals.Builder builder = new FollowSuggestionService.Signals.Builder();
+        for (long userId = 0; userId < size; userId++) {
+            builder.addUser(userId);
+            following.put(userId, new long[]{0L});
+        }
+        following.put(0L, new long[]{1L, 2L, 3L, 4L, 5L});
+
+        // Act
+        followSuggestionService.rebuild(builder.build());
+
+        // Assert
+        assertArrayEquals(new long[]{1L, 2L, 3L}, followSuggestionService.suggestions(size - 1, 10));
+        assertArrayEquals(new long[]{1L, 3L, 4L}, followSuggestionService.suggestions(2L, 10));
+    }
+
+    @Test
+    void recordFollow_ShouldDropFollowedUserAndRefreshOnlyThatUser() {
+        // Arrange
+        following.put(1L, new long[]{2L, 3L});
+        following.put(2L, new long[]{4L, 5L});
+        following.put(3L, new long[]{1L, 4L});
+        followSuggestionService.rebuild(sampleSignals());
+        clearInvocations(socialGraph);
+        when(socialGraph.isReady()).thenReturn(true);
+
+        // Act
+        following.put(1L, new long[]{2L, 3L, 4L});
+        followSuggestionService.recordFollow(1L, 4L);
+        long[] beforeRefresh = followSuggestionService.suggestions(1L, 10);
+        followSuggestionService.refreshStale();
+
+        // Assert
+        assertArrayEquals(new long[]{5L, 6L}, beforeRefresh);
+        assertArrayEquals(new long[]{5L, 6L}, followSuggestionService.suggestions(1L, 10));
+        verify(socialGraph, times(1)).followingIds(1L);
+        verify(socialGraph, never()).followingIds(6L);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void refreshStale_BeforeGraphIsLoaded_ShouldDoNothing() {
+        // Arrange
+        when(socialGraph.isReady()).thenReturn(false);
+
+        // Act
+        followSuggestionService.refreshStale();
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+        assertArrayEquals(new long[0], followSuggestionService.suggestions(1L, 10));
+    }
+
+    private FollowSuggestionService.Signals sampleSignals() {
+        FollowSuggestionService.Signals.Builder builder = new FollowSuggestionService.Signals.Builder();
+        for (long userId = 1; userId <= 6; userId++) {
+            builder.addUser(userId);
+        }
+        return builder
+            .addTopic(1L, "Java")
+            .addTopic(5L, "java ")
+            .addTopic(6L, "Java")
+            .addLike(1L, 100L)
+            .addLike(6L, 100L)
+            .build();
+    }
+}
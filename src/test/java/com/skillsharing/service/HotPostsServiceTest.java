@@ -0,0 +1,134 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.event.PostLikeChangedEvent;
+import com.skillsharing.model.Post;
+import com.skillsharing.model.User;
+import com.skillsharing.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotPostsServiceTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long NOW = 1_000 * 60 * MINUTE;
+
+    @Mock
+    private PostRepository postRepository;
+
+    private HotPostsService hotPostsService;
+
+    @BeforeEach
+    void setUp() {
+        hotPostsService = new HotPostsService(postRepository, new AppProperties());
+    }
+
+    @Test
+    void topPostIds_ShouldRankByWeightedActivity() {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            hotPostsService.record(1L, 1.0, NOW);
+        }
+        hotPostsService.record(2L, 5.0, NOW);
+        hotPostsService.record(3L, 1.0, NOW - 10 * MINUTE);
+
+        // Act
+        List<Long> result = hotPostsService.topPostIds(10, NOW);
+
+        // Assert
+        assertEquals(List.of(2L, 1L, 3L), result);
+    }
+
+    @Test
+    void topPostIds_ShouldIgnoreActivityOutsideWindow() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            hotPostsService.record(1L, 1.0, NOW - 90 * MINUTE);
+        }
+        hotPostsService.record(2L, 1.0, NOW);
+
+        // Act
+        List<Long> result = hotPostsService.topPostIds(10, NOW);
+
+        // Assert
+        assertEquals(List.of(2L), result);
+    }
+
+    @Test
+    void topPostIds_ShouldSumActivityAcrossBuckets() {
+        // Arrange
+        hotPostsService.record(1L, 3.0, NOW - 30 * MINUTE);
+        hotPostsService.record(1L, 3.0, NOW);
+        hotPostsService.record(2L, 5.0, NOW);
+
+        // Act
+        List<Long> result = hotPostsService.topPostIds(1, NOW);
+
+        // Assert
+        assertEquals(List.of(1L), result);
+    }
+
+    @Test
+    void onPostLikeChanged_ShouldCountLikesOnly() {
+        // Arrange
+        Post post = new Post();
+        post.setId(1L);
+        when(postRepository.findAllByIdInOrder(List.of(1L))).thenReturn(List.of(post));
+
+        // Act
+        hotPostsService.onPostLikeChanged(new PostLikeChangedEvent(post, new User(), true));
+        hotPostsService.onPostLikeChanged(new PostLikeChangedEvent(post, new User(), false));
+        List<Post> result = hotPostsService.getHotPosts(10);
+
+        // Assert
+        assertEquals(List.of(post), result);
+    }
+
+    @Test
+    void getHotPosts_NoActivity_ShouldNotQueryPosts() {
+        // Act
+        List<Post> result = hotPostsService.getHotPosts(10);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void spaceSaving_FullSummary_ShouldReplaceSmallestItem() {
+        // Arrange
+        HotPostsService.SpaceSaving summary = new HotPostsService.SpaceSaving(2);
+        summary.add(1L, 5);
+        summary.add(2L, 1);
+
+        // Act
+        summary.add(3L, 1);
+
+        // Assert
+        assertEquals(Set.of(1L, 3L), summary.items());
+    }
+
+    @Test
+    void countMinSketch_ShouldNeverUnderestimate() {
+        // Arrange
+        HotPostsService.CountMinSketch sketch = new HotPostsService.CountMinSketch(2, 16);
+        for (long item = 0; item < 100; item++) {
+            sketch.add(item, item);
+        }
+
+        // Act & Assert
+        for (long item = 0; item < 100; item++) {
+            assertTrue(sketch.estimate(item) >= item);
+        }
+    }
+}
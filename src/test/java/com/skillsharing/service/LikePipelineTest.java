@@ -0,0 +1,196 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.event.PostLikeChangedEvent;
+import com.skillsharing.model.Post;
+import com.skillsharing.model.User;
+import com.skillsharing.repository.PostRepository;
+import com.skillsharing.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LikePipelineTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private AppProperties appProperties;
+    private LikePipeline likePipeline;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        likePipeline = new LikePipeline(jdbcTemplate, transactionManager, postRepository,
+            userRepository, eventPublisher, appProperties);
+    }
+
+    @Test
+    void flush_LikeThenUnlike_ShouldOnlyWriteTheLatestState() {
+        // Arrange
+        likePipeline.submit(1L, 2L, true);
+        likePipeline.submit(1L, 2L, false);
+        when(jdbcTemplate.batchUpdate(startsWith("DELETE"), anyList())).thenReturn(new int[]{0});
+
+        // Act
+        int changed = likePipeline.flush();
+
+        // Assert
+        assertEquals(0, changed);
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT"), anyList());
+        verifyNoInteractions(eventPublisher);
+        assertNull(likePipeline.pendingState(1L, 2L));
+    }
+
+    @Test
+    void flush_ShouldPublishEventsOnlyForChangedRows() {
+        // Arrange
+        Post post = new Post();
+        post.setId(1L);
+        User user = new User();
+        user.setId(2L);
+        likePipeline.submit(1L, 2L, true);
+        likePipeline.submit(1L, 3L, true);
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyList())).thenReturn(new int[]{1, 0});
+        when(postRepository.findAllById(any())).thenReturn(List.of(post));
+        when(userRepository.getReferenceById(2L)).thenReturn(user);
+
+        // Act
+        int changed = likePipeline.flush();
+
+        // Assert
+        assertEquals(1, changed);
+        ArgumentCaptor<PostLikeChangedEvent> captor = ArgumentCaptor.forClass(PostLikeChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(new PostLikeChangedEvent(post, user, true), captor.getValue());
+    }
+
+    @Test
+    void pendingState_ShouldReturnUnflushedRequest() {
+        // Act
+        likePipeline.submit(1L, 2L, true);
+
+        // Assert
+        assertTrue(likePipeline.pendingState(1L, 2L));
+        assertNull(likePipeline.pendingState(1L, 3L));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void flush_BatchFailure_ShouldRetryRowByRowAndDropRowsThatStillFail() {
+        // Arrange
+        Post post = new Post();
+        post.setId(1L);
+        User user = new User();
+        user.setId(3L);
+        likePipeline.submit(1L, 2L, true);
+        likePipeline.submit(1L, 3L, true);
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyList()))
+            .thenThrow(new DataIntegrityViolationException("batch"))
+            .thenThrow(new DataIntegrityViolationException("user 2 is gone"))
+            .thenReturn(new int[]{1});
+        when(postRepository.findAllById(any())).thenReturn(List.of(post));
+        when(userRepository.getReferenceById(3L)).thenReturn(user);
+
+        // Act
+        int first = likePipeline.flush();
+        int second = likePipeline.flush();
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(0, second);
+        assertNull(likePipeline.pendingState(1L, 2L));
+        assertNull(likePipeline.pendingState(1L, 3L));
+        verify(jdbcTemplate, times(3)).batchUpdate(startsWith("INSERT"), anyList());
+        verify(eventPublisher).publishEvent(new PostLikeChangedEvent(post, user, true));
+    }
+
+    @Test
+    void submit_FullPartition_ShouldFlushInline() {
+        // Arrange
+        appProperties.getEngagement().setLikePartitions(1);
+        appProperties.getEngagement().setLikePartitionCapacity(2);
+        likePipeline = new LikePipeline(jdbcTemplate, transactionManager, postRepository,
+            userRepository, eventPublisher, appProperties);
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyList())).thenReturn(new int[]{0, 0});
+
+        // Act
+        likePipeline.submit(1L, 2L, true);
+        likePipeline.submit(5L, 2L, true);
+
+        // Assert
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), anyList());
+        assertNull(likePipeline.pendingState(1L, 2L));
+    }
+
+    @Test
+    void submit_FullPartitionInsideCallerTransaction_ShouldNotRollBackTheCaller() {
+        // Arrange: a real database, where likes by unknown users violate a foreign key
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(database);
+            jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY)");
+            jdbc.execute("CREATE TABLE posts (id BIGINT PRIMARY KEY)");
+            jdbc.execute("CREATE TABLE post_likes (post_id BIGINT NOT NULL REFERENCES posts (id), " +
+                "user_id BIGINT NOT NULL REFERENCES users (id), PRIMARY KEY (post_id, user_id))");
+            jdbc.update("INSERT INTO users (id) VALUES (2)");
+            jdbc.update("INSERT INTO posts (id) VALUES (1)");
+            appProperties.getEngagement().setLikePartitions(1);
+            appProperties.getEngagement().setLikePartitionCapacity(2);
+            DataSourceTransactionManager realTransactionManager = new DataSourceTransactionManager(database);
+            likePipeline = new LikePipeline(jdbc, realTransactionManager, postRepository,
+                userRepository, eventPublisher, appProperties);
+            TransactionTemplate caller = new TransactionTemplate(realTransactionManager);
+
+            // Act: the second request fills the partition and flushes inline
+            caller.executeWithoutResult(status -> {
+                likePipeline.submit(1L, 2L, true);
+                likePipeline.submit(1L, 99L, true);
+            });
+
+            // Assert: the batch failed, the good row was retried on its own
+            // and the caller's transaction still committed
+            assertEquals(List.of(2L), jdbc.queryForList("SELECT user_id FROM post_likes", Long.class));
+            assertNull(likePipeline.pendingState(1L, 99L));
+        } finally {
+            database.shutdown();
+        }
+    }
+}
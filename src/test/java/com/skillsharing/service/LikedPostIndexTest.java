@@ -0,0 +1,103 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LikedPostIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private LikedPostIndex likedPostIndex;
+
+    @BeforeEach
+    void setUp() {
+        likedPostIndex = new LikedPostIndex(jdbcTemplate, new AppProperties());
+    }
+
+    @Test
+    void load_ShouldIndexEveryUsersLikes() throws Exception {
+        // Arrange
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(1L, 1L, 2L);
+        when(rs.getLong(2)).thenReturn(10L, 20L, 10L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < 3; i++) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        // Act
+        likedPostIndex.load();
+
+        // Assert
+        assertEquals(2, likedPostIndex.indexedUsers());
+        assertTrue(likedPostIndex.hasLiked(1L, 20L));
+        assertTrue(likedPostIndex.hasLiked(2L, 10L));
+        assertFalse(likedPostIndex.hasLiked(2L, 20L));
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(Long.class), any());
+    }
+
+    @Test
+    void hasLiked_UnknownUser_ShouldLoadOnce() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(3L))).thenReturn(List.of(5L, 7L));
+
+        // Act
+        boolean liked = likedPostIndex.hasLiked(3L, 7L);
+        boolean notLiked = likedPostIndex.hasLiked(3L, 6L);
+
+        // Assert
+        assertTrue(liked);
+        assertFalse(notLiked);
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), eq(3L));
+    }
+
+    @Test
+    void recordLikeAndUnlike_ShouldUpdateLoadedUser() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(3L))).thenReturn(List.of(5L));
+        likedPostIndex.hasLiked(3L, 5L);
+
+        // Act
+        likedPostIndex.recordLike(3L, 9L);
+        likedPostIndex.recordLike(3L, 1L);
+        likedPostIndex.recordUnlike(3L, 5L);
+
+        // Assert
+        assertEquals(Set.of(1L, 9L), likedPostIndex.likedAmong(3L, List.of(1L, 5L, 9L, 11L)));
+    }
+
+    @Test
+    void withPostAndWithoutPost_ShouldKeepArraySorted() {
+        // Act
+        long[] added = LikedPostIndex.withPost(new long[]{2L, 8L}, 5L);
+        long[] unchanged = LikedPostIndex.withPost(added, 5L);
+        long[] removed = LikedPostIndex.withoutPost(added, 2L);
+
+        // Assert
+        assertArrayEquals(new long[]{2L, 5L, 8L}, added);
+        assertSame(added, unchanged);
+        assertArrayEquals(new long[]{5L, 8L}, removed);
+        assertEquals(0, LikedPostIndex.withoutPost(new long[]{4L}, 4L).length);
+    }
+}
@@ -0,0 +1,64 @@
+package com.skillsharing.service;
+
+import com.skillsharing.model.User;
+import com.skillsharing.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginWarmupServiceTest {
+
+    @Mock
+    private FeedService feedService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private LoginWarmupService loginWarmupService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        loginWarmupService = new LoginWarmupService(
+            feedService, notificationService, userRepository, new SyncTaskExecutor());
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setName("Test User");
+    }
+
+    @Test
+    void warmUpAsync_ShouldWarmFeedAndUnreadCount() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // Act
+        loginWarmupService.warmUpAsync(1L);
+
+        // Assert
+        verify(feedService).warmFeed(1L);
+        verify(notificationService).getUnreadCount(testUser);
+    }
+
+    @Test
+    void warmUpAsync_FailureShouldNotPropagate() {
+        // Arrange
+        doThrow(new IllegalStateException("database unavailable")).when(feedService).warmFeed(1L);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> loginWarmupService.warmUpAsync(1L));
+        verifyNoInteractions(notificationService);
+    }
+}
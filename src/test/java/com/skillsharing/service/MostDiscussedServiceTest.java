@@ -0,0 +1,123 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.model.Post;
+import com.skillsharing.repository.PostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MostDiscussedServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ForkJoinPool pool;
+    private AppProperties appProperties;
+    private MostDiscussedService mostDiscussedService;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+        appProperties = new AppProperties();
+        mostDiscussedService = new MostDiscussedService(postRepository, jdbcTemplate, pool, appProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void build_ShouldRankEachWindowAndType() {
+        // Arrange
+        MostDiscussedService.PostCounts[] posts = {
+            new MostDiscussedService.PostCounts(1L, Post.PostType.SKILL_SHARING, 0, 1, 50),
+            new MostDiscussedService.PostCounts(2L, Post.PostType.LEARNING_PLAN, 3, 4, 4),
+            new MostDiscussedService.PostCounts(3L, Post.PostType.SKILL_SHARING, 1, 6, 6)
+        };
+
+        // Act
+        MostDiscussedService.Snapshot snapshot = mostDiscussedService.build(posts);
+
+        // Assert
+        assertArrayEquals(new long[]{1L, 3L, 2L},
+            snapshot.ranking(MostDiscussedService.Window.ALL_TIME, null));
+        assertArrayEquals(new long[]{3L, 2L, 1L},
+            snapshot.ranking(MostDiscussedService.Window.WEEK, null));
+        assertArrayEquals(new long[]{2L, 3L},
+            snapshot.ranking(MostDiscussedService.Window.DAY, null));
+        assertArrayEquals(new long[]{3L},
+            snapshot.ranking(MostDiscussedService.Window.DAY, Post.PostType.SKILL_SHARING));
+        assertArrayEquals(new long[0],
+            snapshot.ranking(MostDiscussedService.Window.DAY, Post.PostType.LEARNING_PROGRESS));
+    }
+
+    @Test
+    void build_LargeInput_ShouldMergeForkedSlicesAndKeepMaxRanked() {
+        // Arrange
+        appProperties.getTrending().setMostDiscussedMaxRanked(10);
+        mostDiscussedService = new MostDiscussedService(postRepository, jdbcTemplate, pool, appProperties);
+        int size = MostDiscussedService.LEAF_SIZE * 3;
+        MostDiscussedService.PostCounts[] posts = new MostDiscussedService.PostCounts[size];
+        for (int i = 0; i < size; i++) {
+            posts[i] = new MostDiscussedService.PostCounts(i, Post.PostType.SKILL_SHARING, 0, 0, (i * 7919L) % size + 1);
+        }
+
+        // Act
+        long[] ranked = mostDiscussedService.build(posts).ranking(MostDiscussedService.Window.ALL_TIME, null);
+
+        // Assert
+        assertEquals(10, ranked.length);
+        for (int i = 0; i < ranked.length; i++) {
+            assertEquals(size - i, posts[(int) ranked[i]].allTime());
+        }
+    }
+
+    @Test
+    void getMostDiscussed_ShouldHydrateRequestedSliceOfSnapshot() {
+        // Arrange
+        Post post = new Post();
+        post.setId(2L);
+        mostDiscussedService.install(mostDiscussedService.build(new MostDiscussedService.PostCounts[]{
+            new MostDiscussedService.PostCounts(1L, Post.PostType.SKILL_SHARING, 0, 0, 9),
+            new MostDiscussedService.PostCounts(2L, Post.PostType.SKILL_SHARING, 0, 0, 5)
+        }));
+        when(postRepository.findAllByIdInOrder(List.of(2L))).thenReturn(List.of(post));
+
+        // Act
+        Page<Post> result = mostDiscussedService.getMostDiscussed(
+            MostDiscussedService.Window.ALL_TIME, null, PageRequest.of(1, 1));
+
+        // Assert
+        assertEquals(List.of(post), result.getContent());
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    void getMostDiscussed_BeforeFirstRefresh_ShouldReturnEmptyPage() {
+        // Act
+        Page<Post> result = mostDiscussedService.getMostDiscussed(
+            MostDiscussedService.Window.DAY, null, PageRequest.of(0, 20));
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(postRepository);
+    }
+}
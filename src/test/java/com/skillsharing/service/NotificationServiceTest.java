@@ -1,5 +1,6 @@
 package com.skillsharing.service;
 
+import com.skillsharing.config.AppProperties;
 import com.skillsharing.exception.ResourceNotFoundException;
 import com.skillsharing.model.Notification;
 import com.skillsharing.model.Post;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -30,6 +32,9 @@ class NotificationServiceTest {
     @Mock
     private NotificationRepository notificationRepository;
 
+    @Spy
+    private UnreadCountCache unreadCountCache = new UnreadCountCache(new AppProperties());
+
     @InjectMocks
     private NotificationService notificationService;
 
@@ -138,6 +143,35 @@ class NotificationServiceTest {
         assertEquals(5L, result);
     }
 
+    @Test
+    void getUnreadCount_SecondCall_ShouldUseCache() {
+        // Arrange
+        when(notificationRepository.countByUserAndReadFalse(testUser)).thenReturn(5L);
+
+        // Act
+        notificationService.getUnreadCount(testUser);
+        Long result = notificationService.getUnreadCount(testUser);
+
+        // Assert
+        assertEquals(5L, result);
+        verify(notificationRepository, times(1)).countByUserAndReadFalse(testUser);
+    }
+
+    @Test
+    void createNotification_ShouldInvalidateRecipientUnreadCount() {
+        // Arrange
+        when(notificationRepository.countByUserAndReadFalse(testUser)).thenReturn(5L, 6L);
+        when(notificationRepository.save(any(Notification.class))).thenReturn(testNotification);
+        notificationService.getUnreadCount(testUser);
+
+        // Act
+        notificationService.createNotification(testUser, testActor, testPost, "LIKE");
+        Long result = notificationService.getUnreadCount(testUser);
+
+        // Assert
+        assertEquals(6L, result);
+    }
+
     @Test
     void markAsRead_ValidNotification_ShouldMarkAsRead() {
         // Arrange
@@ -0,0 +1,142 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.dto.PostFacets;
+import com.skillsharing.dto.PostSearchFilter;
+import com.skillsharing.event.PostChangedEvent;
+import com.skillsharing.model.Post;
+import com.skillsharing.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostFacetIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PostFacetIndex postFacetIndex;
+
+    @BeforeEach
+    void setUp() {
+        postFacetIndex = new PostFacetIndex(jdbcTemplate, new AppProperties());
+        addPost(1L, Post.PostType.LEARNING_PLAN, List.of("java", "spring"), 10L, LocalDateTime.of(2024, 1, 15, 9, 0));
+        addPost(2L, Post.PostType.LEARNING_PLAN, List.of("python"), 20L, LocalDateTime.of(2024, 3, 2, 9, 0));
+        addPost(3L, Post.PostType.SKILL_SHARING, List.of(), 10L, LocalDateTime.of(2024, 3, 20, 9, 0));
+        addPost(4L, Post.PostType.LEARNING_PLAN, List.of("java"), 20L, LocalDateTime.of(2024, 5, 1, 9, 0));
+    }
+
+    @Test
+    void select_ShouldAndAcrossFacetsAndOrWithinTopics() {
+        // Act
+        BitSet plans = postFacetIndex.select(new PostSearchFilter(Post.PostType.LEARNING_PLAN, null, null, null, null));
+        BitSet javaOrPython = postFacetIndex.select(
+            new PostSearchFilter(null, List.of("java", "python"), 20L, null, null));
+
+        // Assert
+        assertEquals(bits(1, 2, 4), plans);
+        assertEquals(bits(2, 4), javaOrPython);
+    }
+
+    @Test
+    void select_ShouldKeepInclusiveMonthRange() {
+        // Act
+        BitSet march = postFacetIndex.select(
+            new PostSearchFilter(null, null, null, YearMonth.of(2024, 2), YearMonth.of(2024, 3)));
+        BitSet fromMarch = postFacetIndex.select(new PostSearchFilter(null, null, null, YearMonth.of(2024, 3), null));
+        BitSet reversed = postFacetIndex.select(
+            new PostSearchFilter(null, null, null, YearMonth.of(2024, 5), YearMonth.of(2024, 1)));
+
+        // Assert
+        assertEquals(bits(2, 3), march);
+        assertEquals(bits(2, 3, 4), fromMarch);
+        assertTrue(reversed.isEmpty());
+    }
+
+    @Test
+    void count_ShouldCountOnlyMatches() {
+        // Act
+        PostFacets facets = postFacetIndex.count(bits(1, 3, 4));
+
+        // Assert
+        assertEquals(Map.of(Post.PostType.LEARNING_PLAN, 2L, Post.PostType.SKILL_SHARING, 1L), facets.types());
+        assertEquals(Map.of("java", 2L, "spring", 1L), facets.topics());
+        assertEquals(Map.of(10L, 2L, 20L, 1L), facets.authors());
+        assertEquals(List.of(YearMonth.of(2024, 1), YearMonth.of(2024, 3), YearMonth.of(2024, 5)),
+            List.copyOf(facets.months().keySet()));
+    }
+
+    @Test
+    void count_ManyMatches_ShouldAndBitsetsAndAgreeWithTally() {
+        // Arrange: enough matches that ANDing the few value bitsets is cheaper
+        for (long id = 5; id <= 300; id++) {
+            addPost(id, Post.PostType.SKILL_SHARING, List.of("go", "go"), 30L, LocalDateTime.of(2024, 6, 1, 9, 0));
+        }
+
+        // Act
+        PostFacets all = postFacetIndex.count(postFacetIndex.select(null));
+        PostFacets few = postFacetIndex.count(bits(1, 3, 4, 5));
+
+        // Assert
+        assertEquals(296L, all.topics().get("go"));
+        assertEquals(2L, all.topics().get("java"));
+        assertEquals(Map.of(10L, 2L, 20L, 2L, 30L, 296L), all.authors());
+        assertEquals(Map.of("java", 2L, "spring", 1L, "go", 1L), few.topics());
+        assertEquals(Map.of(10L, 2L, 20L, 1L, 30L, 1L), few.authors());
+    }
+
+    @Test
+    void onPostChanged_ShouldMoveAndRemovePosts() {
+        // Act
+        addPost(1L, Post.PostType.LEARNING_PROGRESS, List.of("kotlin"), 10L, LocalDateTime.of(2024, 1, 15, 9, 0));
+
+        // Assert
+        assertFalse(postFacetIndex.select(new PostSearchFilter(null, List.of("java"), null, null, null)).get(1));
+        assertEquals(bits(1), postFacetIndex.select(new PostSearchFilter(null, List.of("kotlin"), null, null, null)));
+
+        Post deleted = new Post();
+        deleted.setId(1L);
+        postFacetIndex.onPostChanged(new PostChangedEvent(deleted, PostChangedEvent.Type.DELETED));
+        assertEquals(3, postFacetIndex.indexedPosts());
+        assertFalse(postFacetIndex.count(bits(1)).topics().containsKey("kotlin"));
+    }
+
+    @Test
+    void newestFirst_ShouldPageFromHighestId() {
+        // Act & Assert
+        assertEquals(List.of(4L, 3L), PostFacetIndex.newestFirst(bits(1, 3, 4, 7), 1, 2));
+        assertEquals(List.of(), PostFacetIndex.newestFirst(bits(1), 1, 2));
+    }
+
+    private void addPost(Long id, Post.PostType type, List<String> topics, Long authorId, LocalDateTime createdAt) {
+        User author = new User();
+        author.setId(authorId);
+        Post post = new Post();
+        post.setId(id);
+        post.setPostType(type);
+        post.setPlanTopics(topics);
+        post.setUser(author);
+        post.setCreatedAt(createdAt);
+        postFacetIndex.onPostChanged(new PostChangedEvent(post, PostChangedEvent.Type.CREATED));
+    }
+
+    private static BitSet bits(int... ids) {
+        BitSet bits = new BitSet();
+        for (int id : ids) {
+            bits.set(id);
+        }
+        return bits;
+    }
+}
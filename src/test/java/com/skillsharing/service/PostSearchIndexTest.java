@@ -0,0 +1,187 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.event.PostChangedEvent;
+import com.skillsharing.event.UserChangedEvent;
+import com.skillsharing.model.Post;
+import com.skillsharing.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostSearchIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ForkJoinPool pool;
+    private PostSearchIndex postSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+        postSearchIndex = new PostSearchIndex(jdbcTemplate, pool, new AppProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void search_ShouldRankRarerAndRepeatedTermsHigher() {
+        // Arrange
+        index(1L, "Learning java streams", null, "Alice");
+        index(2L, "Java java java generics deep dive", null, "Bob");
+        index(3L, "Cooking pasta at home", null, "Carol");
+        index(4L, "Pasta and java", null, "Dan");
+
+        // Act
+        SearchHits hits = postSearchIndex.search("Java generics", 0, 10);
+
+        // Assert
+        assertEquals(List.of(2L, 4L, 1L), hits.ids());
+        assertEquals(3, hits.total());
+    }
+
+    @Test
+    void search_ShouldMatchPlanTitleTopicsAndAuthor() {
+        // Arrange
+        index(1L, "My plan", "Spring Boot roadmap", "Alice");
+        index(2L, "Unrelated", null, "Spring Fan");
+
+        // Act
+        SearchHits byTitle = postSearchIndex.search("roadmap", 0, 10);
+        SearchHits byAuthor = postSearchIndex.search("alice", 0, 10);
+
+        // Assert
+        assertEquals(List.of(1L), byTitle.ids());
+        assertEquals(List.of(1L), byAuthor.ids());
+        assertEquals(2, postSearchIndex.search("spring", 0, 10).total());
+    }
+
+    @Test
+    void search_ShouldPageThroughRanking() {
+        // Arrange
+        for (long id = 1; id <= 5; id++) {
+            index(id, "kotlin", null, "Author");
+        }
+
+        // Act
+        SearchHits hits = postSearchIndex.search("kotlin", 2, 2);
+
+        // Assert
+        assertEquals(List.of(3L, 2L), hits.ids());
+        assertEquals(5, hits.total());
+    }
+
+    @Test
+    void onPostChanged_UpdateAndDelete_ShouldReplaceAndRemovePostings() {
+        // Arrange
+        index(1L, "python basics", null, "Alice");
+
+        // Act
+        Post updated = post(1L, "rust basics", "Alice");
+        postSearchIndex.onPostChanged(new PostChangedEvent(updated, PostChangedEvent.Type.UPDATED));
+
+        // Assert
+        assertTrue(postSearchIndex.search("python", 0, 10).ids().isEmpty());
+        assertEquals(List.of(1L), postSearchIndex.search("rust", 0, 10).ids());
+
+        postSearchIndex.onPostChanged(new PostChangedEvent(updated, PostChangedEvent.Type.DELETED));
+        assertEquals(0, postSearchIndex.indexedPosts());
+        assertTrue(postSearchIndex.search("basics", 0, 10).ids().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void build_ShouldIndexStoredPostsAndBecomeReady() {
+        // Arrange
+        doAnswer(invocation -> null).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenReturn(List.of(
+            new PostSearchIndex.PostText(1L, "graph algorithms", null, List.of(), "Alice"),
+            new PostSearchIndex.PostText(2L, "sorting algorithms", null, List.of("graphs"), "Bob")));
+
+        // Act
+        postSearchIndex.build();
+
+        // Assert
+        assertTrue(postSearchIndex.isReady());
+        assertEquals(2, postSearchIndex.indexedPosts());
+        // Same term frequency, so the shorter document wins
+        assertEquals(List.of(1L, 2L), postSearchIndex.search("algorithms", 0, 10).ids());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onUserChanged_Renamed_ShouldReindexAuthorPosts() {
+        // Arrange
+        index(1L, "graph algorithms", null, "Alice");
+        index(2L, "sorting algorithms", null, "Bob");
+        User author = new User();
+        author.setId(7L);
+        doAnswer(invocation -> null).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(7L));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(7L))).thenReturn(List.of(
+            new PostSearchIndex.PostText(1L, "graph algorithms", null, List.of(), "Alicia")));
+
+        // Act
+        postSearchIndex.onUserChanged(new UserChangedEvent(author, true));
+
+        // Assert
+        assertTrue(postSearchIndex.search("alice", 0, 10).ids().isEmpty());
+        assertEquals(List.of(1L), postSearchIndex.search("alicia", 0, 10).ids());
+        assertEquals(2, postSearchIndex.indexedPosts());
+    }
+
+    @Test
+    void onUserChanged_NotRenamed_ShouldNotQuery() {
+        // Act
+        postSearchIndex.onUserChanged(new UserChangedEvent(new User()));
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void search_StopWordsOnly_ShouldReturnNothing() {
+        // Arrange
+        index(1L, "the art of java", null, "Alice");
+
+        // Act
+        SearchHits hits = postSearchIndex.search("the of", 0, 10);
+
+        // Assert
+        assertEquals(0, hits.total());
+    }
+
+    private void index(Long id, String description, String planTitle, String author) {
+        postSearchIndex.index(id, postSearchIndex.analyze(
+            new PostSearchIndex.PostText(id, description, planTitle, List.of(), author)));
+    }
+
+    private Post post(Long id, String description, String author) {
+        User user = new User();
+        user.setName(author);
+        Post post = new Post();
+        post.setId(id);
+        post.setDescription(description);
+        post.setUser(user);
+        return post;
+    }
+}
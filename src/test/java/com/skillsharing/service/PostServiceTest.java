@@ -1,27 +1,50 @@
 package com.skillsharing.service;
 
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.dto.CursorPage;
+import com.skillsharing.dto.FacetedPage;
+import com.skillsharing.dto.LikeStatus;
+import com.skillsharing.dto.PostEngagement;
+import com.skillsharing.dto.PostFacets;
+import com.skillsharing.dto.PostSearchFilter;
+import com.skillsharing.event.PostChangedEvent;
+import com.skillsharing.exception.BadRequestException;
 import com.skillsharing.exception.ResourceNotFoundException;
+import com.skillsharing.exception.ServiceUnavailableException;
 import com.skillsharing.model.Post;
 import com.skillsharing.model.User;
 import com.skillsharing.repository.PostRepository;
 import com.skillsharing.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +59,39 @@ class PostServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private FeedService feedService;
+
+    @Mock
+    private EngagementCounterService engagementCounterService;
+
+    @Mock
+    private LikedPostIndex likedPostIndex;
+
+    @Mock
+    private LikePipeline likePipeline;
+
+    @Mock
+    private TrendingService trendingService;
+
+    @Mock
+    private HotPostsService hotPostsService;
+
+    @Mock
+    private MostDiscussedService mostDiscussedService;
+
+    @Mock
+    private PostSearchBackend postSearchBackend;
+
+    @Mock
+    private PostFacetIndex postFacetIndex;
+
+    @Spy
+    private SearchResultCache searchResultCache = new SearchResultCache(new AppProperties(), new SimpleMeterRegistry());
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private PostService postService;
 
@@ -72,6 +128,8 @@ class PostServiceTest {
         assertEquals(testPost.getDescription(), result.getDescription());
         assertEquals(testUser, result.getUser());
         verify(postRepository).save(any(Post.class));
+        verify(feedService).fanOut(testPost);
+        verify(eventPublisher).publishEvent(new PostChangedEvent(testPost, PostChangedEvent.Type.CREATED));
     }
 
     @Test
@@ -111,6 +169,19 @@ class PostServiceTest {
         });
     }
 
+    @Test
+    void viewPost_ShouldRecordViewForHotPosts() {
+        // Arrange
+        when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
+
+        // Act
+        Post result = postService.viewPost(1L);
+
+        // Assert
+        assertEquals(testPost, result);
+        verify(hotPostsService).recordView(1L);
+    }
+
     @Test
     void updatePost_ValidUpdate_ShouldUpdateSuccessfully() {
         // Arrange
@@ -129,21 +200,125 @@ class PostServiceTest {
     }
 
     @Test
-    void likePost_ShouldLikeSuccessfully() {
+    void likePost_ShouldSubmitToPipelineAndReturnIntendedState() {
         // Arrange
-        User liker = new User();
-        liker.setId(2L);
-        
-        when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(liker));
-        when(postRepository.hasUserLikedPost(1L, 2L)).thenReturn(false);
+        when(postRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(true);
 
         // Act
-        postService.likePost(1L, 2L);
+        LikeStatus result = postService.likePost(1L, 2L);
 
         // Assert
-        verify(postRepository).save(any(Post.class));
-        verify(notificationService).createNotification(any(), any(), any(), eq("LIKE"));
+        assertEquals(new LikeStatus(1L, true), result);
+        verify(likePipeline).submit(1L, 2L, true);
+        verify(postRepository, never()).save(any(Post.class));
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void likePost_InvalidUser_ShouldThrowException() {
+        // Arrange
+        when(postRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> postService.likePost(1L, 99L));
+        verifyNoInteractions(likePipeline);
+    }
+
+    @Test
+    void unlikePost_InvalidPost_ShouldThrowException() {
+        // Arrange
+        when(postRepository.existsById(99L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> postService.unlikePost(99L, 2L));
+        verifyNoInteractions(likePipeline);
+    }
+
+    @Test
+    void unlikePost_ShouldSubmitToPipeline() {
+        // Arrange
+        when(postRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(true);
+
+        // Act
+        LikeStatus result = postService.unlikePost(1L, 2L);
+
+        // Assert
+        assertFalse(result.liked());
+        verify(likePipeline).submit(1L, 2L, false);
+    }
+
+    @Test
+    void hasUserLikedPost_PendingUnlike_ShouldWinOverIndex() {
+        // Arrange
+        when(likePipeline.pendingState(1L, 2L)).thenReturn(false);
+
+        // Act
+        boolean result = postService.hasUserLikedPost(1L, 2L);
+
+        // Assert
+        assertFalse(result);
+        verifyNoInteractions(likedPostIndex);
+    }
+
+    @Test
+    void getEngagement_ShouldCombineCountsAndLikedFlags() {
+        // Arrange
+        when(engagementCounterService.getCounts(List.of(1L, 2L, 3L))).thenReturn(Map.of(
+            1L, new EngagementCounterService.Counts(5, 2),
+            2L, new EngagementCounterService.Counts(0, 1)));
+        when(likedPostIndex.likedAmong(eq(2L), anyCollection())).thenReturn(Set.of(1L));
+        when(likePipeline.pendingState(anyLong(), eq(2L))).thenReturn(null);
+
+        // Act
+        List<PostEngagement> result = postService.getEngagement(List.of(1L, 2L, 3L, 1L), 2L);
+
+        // Assert
+        assertEquals(List.of(
+            new PostEngagement(1L, 5, 2, true),
+            new PostEngagement(2L, 0, 1, false)), result);
+    }
+
+    @Test
+    void getEngagement_Anonymous_ShouldNotLookUpLikes() {
+        // Arrange
+        when(engagementCounterService.getCounts(List.of(1L)))
+                .thenReturn(Map.of(1L, new EngagementCounterService.Counts(5, 2)));
+
+        // Act
+        List<PostEngagement> result = postService.getEngagement(List.of(1L), null);
+
+        // Assert
+        assertFalse(result.get(0).likedByCurrentUser());
+        verify(likedPostIndex, never()).likedAmong(any(), anyCollection());
+    }
+
+    @Test
+    void getEngagement_TooManyIds_ShouldThrowException() {
+        // Arrange
+        List<Long> ids = new ArrayList<>();
+        for (long id = 0; id <= CursorPage.MAX_SIZE; id++) {
+            ids.add(id);
+        }
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> postService.getEngagement(ids, 2L));
+    }
+
+    @Test
+    void hasUserLikedPost_ShouldUseLikedPostIndex() {
+        // Arrange
+        when(likePipeline.pendingState(1L, 2L)).thenReturn(null);
+        when(likedPostIndex.hasLiked(2L, 1L)).thenReturn(true);
+
+        // Act
+        boolean result = postService.hasUserLikedPost(1L, 2L);
+
+        // Assert
+        assertTrue(result);
+        verify(postRepository, never()).hasUserLikedPost(anyLong(), anyLong());
     }
 
     @Test
@@ -164,6 +339,88 @@ class PostServiceTest {
         assertEquals(testPost.getDescription(), result.getContent().get(0).getDescription());
     }
 
+    @Test
+    void searchPosts_IndexReady_ShouldFilterCandidatesAndCountFacetsOverMatches() {
+        // Arrange
+        PostSearchFilter filter = new PostSearchFilter(Post.PostType.LEARNING_PLAN, null, null, null, null);
+        BitSet candidates = new BitSet();
+        candidates.set(1);
+        PostFacets facets = new PostFacets(Map.of(Post.PostType.LEARNING_PLAN, 1L), Map.of(), Map.of(), Map.of());
+        when(postFacetIndex.isReady()).thenReturn(true);
+        when(postSearchBackend.isReady()).thenReturn(true);
+        when(postFacetIndex.select(filter)).thenReturn(candidates);
+        when(postSearchBackend.search(eq("test"), any(), any(), eq(0L), eq(10))).thenAnswer(invocation -> {
+            LongPredicate candidateFilter = invocation.getArgument(1);
+            LongConsumer onMatch = invocation.getArgument(2);
+            assertTrue(candidateFilter.test(1L));
+            assertFalse(candidateFilter.test(2L));
+            onMatch.accept(1L);
+            return new SearchHits(List.of(1L), 1);
+        });
+        when(postRepository.findAllByIdInOrder(List.of(1L))).thenReturn(List.of(testPost));
+        when(postFacetIndex.count(candidates)).thenReturn(facets);
+
+        // Act
+        FacetedPage<Post> result = postService.searchPosts("test", filter, PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(List.of(testPost), result.getContent());
+        assertEquals(1, result.getTotalElements());
+        assertEquals(facets, result.getFacets());
+        verify(postRepository, never()).searchPosts(any(), any());
+    }
+
+    @Test
+    void searchPosts_RepeatedQuery_ShouldReuseCachedHitsAndReloadPosts() {
+        // Arrange
+        when(postFacetIndex.isReady()).thenReturn(true);
+        when(postSearchBackend.isReady()).thenReturn(true);
+        when(postFacetIndex.select(PostSearchFilter.NONE)).thenReturn(new BitSet());
+        when(postSearchBackend.search(eq("Java"), any(), any(), eq(0L), eq(10))).thenReturn(new SearchHits(List.of(1L), 1));
+        when(postFacetIndex.count(any())).thenReturn(PostFacets.EMPTY);
+        when(postRepository.findAllByIdInOrder(List.of(1L))).thenReturn(List.of(testPost));
+
+        // Act
+        postService.searchPosts("Java", PostSearchFilter.NONE, PageRequest.of(0, 10));
+        FacetedPage<Post> result = postService.searchPosts(" java ", PostSearchFilter.NONE, PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(List.of(testPost), result.getContent());
+        verify(postSearchBackend, times(1)).search(any(), any(), any(), anyLong(), anyInt());
+        verify(postRepository, times(2)).findAllByIdInOrder(List.of(1L));
+    }
+
+    @Test
+    void searchPosts_NoKeyword_ShouldListFilteredPostsNewestFirst() {
+        // Arrange
+        BitSet candidates = new BitSet();
+        candidates.set(3);
+        candidates.set(5);
+        candidates.set(8);
+        when(postFacetIndex.isReady()).thenReturn(true);
+        when(postFacetIndex.select(PostSearchFilter.NONE)).thenReturn(candidates);
+        when(postFacetIndex.count(candidates)).thenReturn(PostFacets.EMPTY);
+        when(postRepository.findAllByIdInOrder(List.of(5L))).thenReturn(List.of(testPost));
+
+        // Act
+        FacetedPage<Post> result = postService.searchPosts(" ", PostSearchFilter.NONE, PageRequest.of(1, 1));
+
+        // Assert
+        assertEquals(List.of(testPost), result.getContent());
+        assertEquals(3, result.getTotalElements());
+        verify(postSearchBackend, never()).search(any(), any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void searchPosts_FiltersBeforeIndexesLoad_ShouldBeUnavailable() {
+        // Arrange
+        PostSearchFilter filter = new PostSearchFilter(null, List.of("java"), null, null, null);
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class,
+            () -> postService.searchPosts("test", filter, PageRequest.of(0, 10)));
+    }
+
     @Test
     void searchPosts_ShouldReturnMatchingPosts() {
         // Arrange
@@ -174,7 +431,7 @@ class PostServiceTest {
                 .thenReturn(postPage);
 
         // Act
-        Page<Post> result = postService.searchPosts("test", Pageable.unpaged());
+        Page<Post> result = postService.searchPosts("test", PostSearchFilter.NONE, Pageable.unpaged());
 
         // Assert
         assertEquals(1, result.getContent().size());
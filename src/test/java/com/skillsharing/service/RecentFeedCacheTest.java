@@ -0,0 +1,128 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentFeedCacheTest {
+
+    private AppProperties appProperties;
+    private RecentFeedCache cache;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getFeed().setCacheEntryCapacity(3);
+        cache = new RecentFeedCache(appProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void get_ShouldReturnNewestIdsFirst() {
+        // Arrange
+        cache.put(1L, new long[]{30L, 20L, 10L}, 5, new long[0], cache.currentVersion());
+
+        // Act
+        RecentFeedCache.CachedFeed result = cache.get(1L, 2);
+
+        // Assert
+        assertArrayEquals(new long[]{30L, 20L}, result.postIds());
+        assertEquals(5, result.total());
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    void pushIfPresent_ShouldDropOldestIdWhenFull() {
+        // Arrange
+        cache.put(1L, new long[]{30L, 20L, 10L}, 3, new long[0], cache.currentVersion());
+
+        // Act
+        cache.pushIfPresent(1L, 40L);
+        cache.pushIfPresent(2L, 40L);
+
+        // Assert
+        assertArrayEquals(new long[]{40L, 30L, 20L}, cache.get(1L, 3).postIds());
+        assertEquals(4, cache.get(1L, 3).total());
+        assertNull(cache.get(2L, 1));
+    }
+
+    @Test
+    void get_PartialEntryShorterThanLimit_ShouldMiss() {
+        // Arrange: only the first 2 ids were loaded but the feed is longer
+        cache.put(1L, new long[]{30L, 20L, 10L}, 10, new long[0], cache.currentVersion());
+        cache.put(2L, new long[]{30L, 20L}, 2, new long[0], cache.currentVersion());
+
+        // Act & Assert
+        assertNotNull(cache.get(1L, 3));
+        assertArrayEquals(new long[]{30L, 20L}, cache.get(2L, 3).postIds());
+        assertNull(cache.get(1L, 4));
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void markPulledAuthorPosted_ShouldInvalidateFeedsThatPullTheAuthor() {
+        // Arrange
+        cache.put(1L, new long[]{30L}, 1, new long[]{7L}, cache.currentVersion());
+        cache.put(2L, new long[]{30L}, 1, new long[0], cache.currentVersion());
+
+        // Act
+        cache.markPulledAuthorPosted(7L);
+
+        // Assert
+        assertNull(cache.get(1L, 1));
+        assertNotNull(cache.get(2L, 1));
+    }
+
+    @Test
+    void put_LoadStartedBeforeFanOut_ShouldNotBeStored() {
+        // Arrange
+        long loadedVersion = cache.currentVersion();
+        cache.markFannedOut();
+
+        // Act
+        cache.put(1L, new long[]{30L}, 1, new long[0], loadedVersion);
+        cache.put(2L, new long[]{30L}, 1, new long[0], cache.currentVersion());
+
+        // Assert
+        assertFalse(cache.contains(1L));
+        assertTrue(cache.contains(2L));
+    }
+
+    @Test
+    void pushIfPresent_PostAlreadyLoaded_ShouldNotPushItAgain() {
+        // Arrange
+        cache.markFannedOut();
+        cache.put(1L, new long[]{30L, 20L}, 2, new long[0], cache.currentVersion());
+
+        // Act
+        cache.pushIfPresent(1L, 30L);
+
+        // Assert
+        RecentFeedCache.CachedFeed result = cache.get(1L, 2);
+        assertArrayEquals(new long[]{30L, 20L}, result.postIds());
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void put_OverBudget_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        cache.put(1L, new long[]{1L}, 1, new long[0], cache.currentVersion());
+        long entryBytes = cache.usedBytes();
+        appProperties.getFeed().setCacheMaxBytes(2 * entryBytes);
+        cache = new RecentFeedCache(appProperties, new SimpleMeterRegistry());
+        cache.put(1L, new long[]{1L}, 1, new long[0], cache.currentVersion());
+        cache.put(2L, new long[]{2L}, 1, new long[0], cache.currentVersion());
+        cache.get(1L, 1);
+
+        // Act
+        cache.put(3L, new long[]{3L}, 1, new long[0], cache.currentVersion());
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(1L, 1));
+        assertNull(cache.get(2L, 1));
+        assertEquals(2 * entryBytes, cache.usedBytes());
+    }
+}
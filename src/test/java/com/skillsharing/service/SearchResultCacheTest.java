@@ -0,0 +1,185 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.event.PostChangedEvent;
+import com.skillsharing.event.UserChangedEvent;
+import com.skillsharing.model.Post;
+import com.skillsharing.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private SimpleMeterRegistry meterRegistry;
+    private SearchResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getSearch().setCacheTtlSeconds(60);
+        appProperties.getSearch().setCacheMaxEntries(2);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SearchResultCache(appProperties, meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_SameNormalizedQuery_ShouldLoadOnce() {
+        // Act
+        String first = load("Spring  Boot", 0);
+        String second = load("  spring boot ", SECOND);
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(1.0, meterRegistry.get("search.cache.requests").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void get_AfterTtl_ShouldReload() {
+        // Arrange
+        load("java", 0);
+
+        // Act
+        load("java", 61 * SECOND);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_OverMaxEntries_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        load("a", 0);
+        load("b", 0);
+        load("a", 0);
+
+        // Act
+        load("c", 0);
+
+        // Assert
+        assertEquals(2, cache.size());
+        load("a", 0);
+        assertEquals(3, loads.get());
+        load("b", 0);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void onPostChanged_ShouldDropPostSearchesOnly() {
+        // Arrange
+        load("java", 0);
+        cache.get(SearchResultCache.Scope.USERS, "alice", 50, () -> "users", 0);
+
+        // Act
+        cache.onPostChanged(new PostChangedEvent(new Post(), PostChangedEvent.Type.UPDATED));
+
+        // Assert
+        assertEquals(1, cache.size());
+        load("java", 0);
+        assertEquals(2, loads.get());
+
+        cache.onUserChanged(new UserChangedEvent(new User()));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void onUserChanged_Renamed_ShouldDropPostSearchesToo() {
+        // Arrange
+        load("java", 0);
+        cache.get(SearchResultCache.Scope.USERS, "alice", 50, () -> "users", 0);
+
+        // Act
+        cache.onUserChanged(new UserChangedEvent(new User(), true));
+
+        // Assert
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_ChangeDuringLoad_ShouldNotCacheResult() {
+        // Act
+        String result = cache.get(SearchResultCache.Scope.POSTS, "java", 0, () -> {
+            cache.invalidate(SearchResultCache.Scope.POSTS);
+            return "stale";
+        }, 0);
+
+        // Assert
+        assertEquals("stale", result);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_ConcurrentMisses_ShouldShareOneLoad() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> cache.get(SearchResultCache.Scope.POSTS, "java", 0, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "result";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // Act
+            Future<String> second = executor.submit(() -> cache.get(SearchResultCache.Scope.POSTS, "java", 0, () -> {
+                loads.incrementAndGet();
+                return "other";
+            }));
+            while (meterRegistry.get("search.cache.coalesced").functionCounter().count() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            assertEquals("result", first.get(5, TimeUnit.SECONDS));
+            assertEquals("result", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_LoaderFails_ShouldPropagateAndNotCache() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> cache.get(SearchResultCache.Scope.POSTS, "java", 0,
+            () -> {
+                throw new IllegalStateException("boom");
+            }, 0));
+        assertEquals(0, cache.size());
+        assertEquals("java#1", load("java", 0));
+    }
+
+    private String load(String query, long nowNanos) {
+        return cache.get(SearchResultCache.Scope.POSTS, query, List.of(0, 10),
+            () -> SearchResultCache.normalize(query) + "#" + loads.incrementAndGet(), nowNanos);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SocialGraphTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ForkJoinPool pool;
+    private AppProperties appProperties;
+    private SocialGraph socialGraph;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(1);
+        appProperties = new AppProperties();
+        socialGraph = new SocialGraph(jdbcTemplate, pool, appProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void load_ShouldAnswerBothDirections() throws Exception {
+        // Arrange: 1 follows 2 and 3, 2 follows 3
+        loadEdges(new long[][] {{1, 3}, {1, 2}, {2, 3}});
+
+        // Assert
+        assertTrue(socialGraph.isReady());
+        assertArrayEquals(new long[] {2, 3}, socialGraph.followingIds(1));
+        assertArrayEquals(new long[] {1, 2}, socialGraph.followerIds(3));
+        assertEquals(2, socialGraph.followerCount(3));
+        assertEquals(0, socialGraph.followerCount(1));
+        assertTrue(socialGraph.follows(2, 3));
+        assertFalse(socialGraph.follows(3, 2));
+        assertArrayEquals(new long[0], socialGraph.followingIds(99));
+    }
+
+    @Test
+    void edits_ShouldOverlayTheArrays() throws Exception {
+        // Arrange
+        loadEdges(new long[][] {{1, 2}, {1, 3}});
+
+        // Act
+        socialGraph.recordUnfollow(1L, 2L);
+        socialGraph.recordFollow(4L, 2L);
+        socialGraph.recordFollow(1L, 5L);
+
+        // Assert
+        assertFalse(socialGraph.follows(1, 2));
+        assertArrayEquals(new long[] {3, 5}, socialGraph.followingIds(1));
+        assertArrayEquals(new long[] {4}, socialGraph.followerIds(2));
+        assertEquals(1, socialGraph.followerCount(2));
+        assertEquals(2, socialGraph.followingCount(1));
+        assertEquals(3, socialGraph.pendingEdits());
+    }
+
+    @Test
+    void followedAmong_ShouldCombineArraysAndOverlay() throws Exception {
+        // Arrange
+        loadEdges(new long[][] {{1, 2}, {1, 3}, {2, 4}});
+        socialGraph.recordUnfollow(1L, 3L);
+        socialGraph.recordFollow(1L, 4L);
+
+        // Act
+        Set<Long> followed = socialGraph.followedAmong(1, List.of(2L, 3L, 4L, 5L));
+
+        // Assert
+        assertEquals(Set.of(2L, 4L), followed);
+        assertEquals(Set.of(), socialGraph.followedAmong(9, List.of(2L)));
+    }
+
+    @Test
+    void edit_BackToArrays_ShouldLeaveNoOverlayEntry() throws Exception {
+        // Arrange
+        loadEdges(new long[][] {{1, 2}});
+
+        // Act
+        socialGraph.recordUnfollow(1L, 2L);
+        socialGraph.recordFollow(1L, 2L);
+
+        // Assert
+        assertEquals(0, socialGraph.pendingEdits());
+        assertTrue(socialGraph.follows(1, 2));
+    }
+
+    @Test
+    void compact_ShouldFoldEditsIntoArrays() throws Exception {
+        // Arrange
+        loadEdges(new long[][] {{1, 2}, {1, 3}, {2, 3}});
+        socialGraph.recordUnfollow(1L, 3L);
+        socialGraph.recordFollow(3L, 1L);
+
+        // Act
+        socialGraph.compact();
+
+        // Assert
+        assertEquals(0, socialGraph.pendingEdits());
+        assertArrayEquals(new long[] {2}, socialGraph.followingIds(1));
+        assertArrayEquals(new long[] {2}, socialGraph.followerIds(3));
+        assertArrayEquals(new long[] {3}, socialGraph.followerIds(1));
+        assertEquals(1, socialGraph.followerCount(1));
+    }
+
+    @Test
+    void edit_OverThreshold_ShouldCompact() throws Exception {
+        // Arrange
+        appProperties.getGraph().setCompactionThreshold(2);
+        socialGraph = new SocialGraph(jdbcTemplate, pool, appProperties);
+        loadEdges(new long[0][]);
+
+        // Act
+        socialGraph.recordFollow(1L, 2L);
+        socialGraph.recordFollow(1L, 3L);
+        pool.awaitQuiescence(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(0, socialGraph.pendingEdits());
+        assertArrayEquals(new long[] {2, 3}, socialGraph.followingIds(1));
+    }
+
+    @Test
+    void edit_BeforeLoad_ShouldOverrideLoadedEdges() throws Exception {
+        // Arrange: the unfollow commits while the startup query still sees the edge
+        socialGraph.recordUnfollow(1L, 2L);
+
+        // Act
+        loadEdges(new long[][] {{1, 2}});
+
+        // Assert
+        assertFalse(socialGraph.follows(1, 2));
+        assertEquals(0, socialGraph.followerCount(2));
+    }
+
+    // Rows are (follower id, followed id)
+    private void loadEdges(long[][] edges) throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (long[] edge : edges) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong(1)).thenReturn(edge[0]);
+                when(rs.getLong(2)).thenReturn(edge[1]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        socialGraph.load();
+    }
+}
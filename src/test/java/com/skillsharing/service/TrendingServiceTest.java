@@ -0,0 +1,150 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.model.Post;
+import com.skillsharing.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private AppProperties appProperties;
+    private TrendingService trendingService;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        trendingService = new TrendingService(postRepository, jdbcTemplate, appProperties);
+    }
+
+    @Test
+    void topPostIds_ShouldOrderByEngagement() {
+        // Arrange
+        trendingService.recordLike(1L);
+        trendingService.recordComment(2L);
+        trendingService.recordLike(3L);
+        trendingService.recordLike(3L);
+
+        // Act
+        List<Long> result = trendingService.topPostIds(0, 10);
+
+        // Assert
+        assertEquals(List.of(2L, 3L, 1L), result);
+    }
+
+    @Test
+    void topPostIds_RecentLikesShouldOutweighOlderOnes() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        trendingService.add(1L, trendingService.logWeight(1.0, now.minusHours(24)));
+        trendingService.add(1L, trendingService.logWeight(1.0, now.minusHours(24)));
+        trendingService.add(1L, trendingService.logWeight(1.0, now.minusHours(24)));
+        trendingService.add(2L, trendingService.logWeight(1.0, now));
+
+        // Act
+        List<Long> result = trendingService.topPostIds(0, 1);
+
+        // Assert
+        assertEquals(List.of(2L), result);
+    }
+
+    @Test
+    void recordUnlike_LastLike_ShouldRemovePost() {
+        // Arrange
+        trendingService.recordLike(1L);
+        trendingService.recordLike(2L);
+
+        // Act
+        trendingService.recordUnlike(1L, 1);
+
+        // Assert
+        assertEquals(List.of(2L), trendingService.topPostIds(0, 10));
+        assertEquals(1, trendingService.trackedPosts());
+    }
+
+    @Test
+    void recordUnlike_OldLikes_ShouldRemoveOnlyOneLikesShare() {
+        // Arrange
+        LocalDateTime dayAgo = LocalDateTime.now().minusHours(24);
+        for (int i = 0; i < 4; i++) {
+            trendingService.add(1L, trendingService.logWeight(1.0, dayAgo));
+        }
+        for (int i = 0; i < 3; i++) {
+            trendingService.add(2L, trendingService.logWeight(1.0, dayAgo));
+        }
+        trendingService.add(3L, trendingService.logWeight(1.0, dayAgo));
+        trendingService.add(3L, trendingService.logWeight(1.0, dayAgo));
+
+        // Act
+        trendingService.recordUnlike(1L, 4);
+
+        // Assert
+        assertEquals(3, trendingService.trackedPosts());
+        assertEquals(3L, trendingService.topPostIds(0, 3).get(2));
+    }
+
+    @Test
+    void add_OverCapacity_ShouldEvictLeastTrending() {
+        // Arrange
+        appProperties.getTrending().setMaxTrackedPosts(2);
+        trendingService = new TrendingService(postRepository, jdbcTemplate, appProperties);
+        trendingService.recordComment(1L);
+        trendingService.recordComment(2L);
+
+        // Act
+        trendingService.recordLike(3L);
+
+        // Assert
+        assertEquals(2, trendingService.trackedPosts());
+        assertEquals(List.of(2L, 1L), trendingService.topPostIds(0, 10));
+    }
+
+    @Test
+    void getTrendingPosts_ShouldHydrateRequestedPageOnly() {
+        // Arrange
+        Post post = new Post();
+        post.setId(2L);
+        trendingService.recordComment(1L);
+        trendingService.recordLike(2L);
+        when(postRepository.findAllByIdInOrder(List.of(2L))).thenReturn(List.of(post));
+
+        // Act
+        Page<Post> result = trendingService.getTrendingPosts(PageRequest.of(1, 1));
+
+        // Assert
+        assertEquals(List.of(post), result.getContent());
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    void forget_ShouldDropPostFromLeaderboard() {
+        // Arrange
+        trendingService.recordLike(1L);
+
+        // Act
+        trendingService.forget(1L);
+
+        // Assert
+        assertTrue(trendingService.topPostIds(0, 10).isEmpty());
+        verifyNoInteractions(postRepository);
+    }
+}
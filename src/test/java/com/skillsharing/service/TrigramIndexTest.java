@@ -0,0 +1,114 @@
+package com.skillsharing.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+    }
+
+    @Test
+    void search_ShouldMatchSubstringsNewestFirst() {
+        // Arrange
+        index.put(1L, "Learning Java basics");
+        index.put(2L, "Modern JavaScript patterns");
+        index.put(3L, "Python for data science");
+
+        // Act
+        SearchHits hits = index.search("java", 0, 10);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), hits.ids());
+        assertEquals(2, hits.total());
+        assertEquals(List.of(2L), index.search("script", 0, 10).ids());
+    }
+
+    @Test
+    void search_AllTrigramsButNotSubstring_ShouldBeRejected() {
+        // Arrange: has "abc" and "bcd" but not "abcd"
+        index.put(1L, "abc bcd");
+        index.put(2L, "xabcdx");
+
+        // Act
+        SearchHits hits = index.search("abcd", 0, 10);
+
+        // Assert
+        assertEquals(List.of(2L), hits.ids());
+        assertEquals(1, hits.total());
+    }
+
+    @Test
+    void search_ShouldIgnoreCaseAndAccents() {
+        // Arrange
+        index.put(1L, "Café au lait");
+
+        // Act & Assert
+        assertEquals(List.of(1L), index.search("CAFE", 0, 10).ids());
+        assertEquals(List.of(1L), index.search("café", 0, 10).ids());
+    }
+
+    @Test
+    void search_ShouldPageAndCountEveryMatch() {
+        // Arrange
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, "spring boot tips #" + id);
+        }
+
+        // Act
+        SearchHits hits = index.search("boot", 1, 2);
+
+        // Assert
+        assertEquals(List.of(4L, 3L), hits.ids());
+        assertEquals(5, hits.total());
+    }
+
+    @Test
+    void search_ShortQuery_ShouldScanStoredTexts() {
+        // Arrange
+        index.put(1L, "Go concurrency");
+        index.put(2L, "Rust ownership");
+
+        // Act & Assert
+        assertEquals(List.of(1L), index.search("go", 0, 10).ids());
+        assertEquals(List.of(2L, 1L), index.search("o", 0, 10).ids());
+    }
+
+    @Test
+    void putAndRemove_ShouldReplaceAndDropPostings() {
+        // Arrange
+        index.put(1L, "kotlin coroutines");
+
+        // Act
+        index.put(1L, "scala futures");
+
+        // Assert
+        assertTrue(index.search("kotlin", 0, 10).ids().isEmpty());
+        assertEquals(List.of(1L), index.search("futures", 0, 10).ids());
+
+        index.remove(1L);
+        assertEquals(0, index.size());
+        assertTrue(index.search("futures", 0, 10).ids().isEmpty());
+    }
+
+    @Test
+    void search_BlankQuery_ShouldReturnNothing() {
+        // Arrange
+        index.put(1L, "anything");
+
+        // Act
+        SearchHits hits = index.search("   ", 0, 10);
+
+        // Assert
+        assertTrue(hits.ids().isEmpty());
+        assertEquals(0, hits.total());
+    }
+}
@@ -0,0 +1,77 @@
+package com.skillsharing.service;
+
+import com.skillsharing.event.PostChangedEvent;
+import com.skillsharing.model.Post;
+import com.skillsharing.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrigramPostSearchTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private TrigramPostSearch trigramPostSearch;
+
+    @BeforeEach
+    void setUp() {
+        trigramPostSearch = new TrigramPostSearch(jdbcTemplate);
+    }
+
+    @Test
+    void onPostChanged_ShouldIndexDescriptionAndAuthor() {
+        // Arrange
+        Post post = post(1L, "Intro to microservices", "Alice Walker");
+
+        // Act
+        trigramPostSearch.onPostChanged(new PostChangedEvent(post, PostChangedEvent.Type.CREATED));
+
+        // Assert
+        assertEquals(List.of(1L), trigramPostSearch.search("service", 0, 10).ids());
+        assertEquals(List.of(1L), trigramPostSearch.search("walk", 0, 10).ids());
+        // A match may not span the description and the author
+        assertTrue(trigramPostSearch.search("services alice", 0, 10).ids().isEmpty());
+    }
+
+    @Test
+    void onPostChanged_Deleted_ShouldRemovePost() {
+        // Arrange
+        Post post = post(1L, "Intro to microservices", "Alice");
+        trigramPostSearch.onPostChanged(new PostChangedEvent(post, PostChangedEvent.Type.CREATED));
+
+        // Act
+        trigramPostSearch.onPostChanged(new PostChangedEvent(post, PostChangedEvent.Type.DELETED));
+
+        // Assert
+        assertEquals(0, trigramPostSearch.indexedPosts());
+    }
+
+    @Test
+    void load_ShouldMarkReady() {
+        // Act
+        assertFalse(trigramPostSearch.isReady());
+        trigramPostSearch.load();
+
+        // Assert
+        assertTrue(trigramPostSearch.isReady());
+    }
+
+    private static Post post(Long id, String description, String authorName) {
+        User author = new User();
+        author.setName(authorName);
+        Post post = new Post();
+        post.setId(id);
+        post.setDescription(description);
+        post.setUser(author);
+        return post;
+    }
+}
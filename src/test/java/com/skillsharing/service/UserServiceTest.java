@@ -1,22 +1,42 @@
 package com.skillsharing.service;
 
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.dto.CursorPage;
+import com.skillsharing.dto.FollowResult;
+import com.skillsharing.dto.IdCursor;
+import com.skillsharing.dto.UserCard;
+import com.skillsharing.event.UserChangedEvent;
+import com.skillsharing.exception.BadRequestException;
 import com.skillsharing.exception.ResourceNotFoundException;
 import com.skillsharing.model.User;
 import com.skillsharing.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +45,33 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private FeedService feedService;
+
+    @Mock
+    private UserTypeaheadIndex userTypeaheadIndex;
+
+    @Mock
+    private UserSearchBackend userSearchBackend;
+
+    @Spy
+    private SearchResultCache searchResultCache = new SearchResultCache(new AppProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private AppProperties appProperties = new AppProperties();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SocialGraph socialGraph;
+
+    @Mock
+    private FollowSuggestionService followSuggestionService;
+
     @InjectMocks
     private UserService userService;
 
@@ -132,25 +179,102 @@ class UserServiceTest {
         assertEquals(updatedDetails.getName(), result.getName());
         assertEquals(updatedDetails.getBio(), result.getBio());
         verify(userRepository).save(any(User.class));
+        verify(eventPublisher).publishEvent(new UserChangedEvent(testUser, true));
+    }
+
+    @Test
+    void followUser_ValidUsers_ShouldInsertEdgeAndReturnCounts() {
+        // Arrange
+        when(jdbcTemplate.update(startsWith("INSERT INTO user_followers"), eq(2L), eq(1L), eq(2L), eq(2L), eq(1L)))
+            .thenReturn(1);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT follower_count"), eq(Long.class), eq(2L))).thenReturn(5L);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT following_count"), eq(Long.class), eq(1L))).thenReturn(3L);
+
+        // Act
+        FollowResult result = userService.followUser(1L, 2L);
+
+        // Assert
+        assertEquals(new FollowResult(2L, true, 5L, 3L), result);
+        verify(jdbcTemplate).update(startsWith("UPDATE users SET"), eq(2L), eq(1), eq(1L), eq(1), eq(2L), eq(1L));
+        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).findById(any());
+        verify(feedService).onFollow(1L, 2L);
+        verify(userTypeaheadIndex).recordFollow(2L);
+        verify(socialGraph).recordFollow(1L, 2L);
+        verify(followSuggestionService).recordFollow(1L, 2L);
+    }
+
+    @Test
+    void followUser_AlreadyFollowing_ShouldChangeNothing() {
+        // Arrange
+        when(jdbcTemplate.update(startsWith("INSERT INTO user_followers"), any(Object[].class))).thenReturn(0);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(1L);
+
+        // Act
+        FollowResult result = userService.followUser(1L, 2L);
+
+        // Assert
+        assertTrue(result.following());
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE users"), any(Object[].class));
+        verifyNoInteractions(feedService, userTypeaheadIndex, socialGraph, followSuggestionService);
+    }
+
+    @Test
+    void followUser_ConcurrentDuplicate_ShouldBeTreatedAsAlreadyFollowing() {
+        // Arrange
+        when(jdbcTemplate.update(startsWith("INSERT INTO user_followers"), any(Object[].class)))
+            .thenThrow(new DuplicateKeyException("duplicate edge"));
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(1L);
+
+        // Act
+        FollowResult result = userService.followUser(1L, 2L);
+
+        // Assert
+        assertTrue(result.following());
+        verifyNoInteractions(feedService, socialGraph);
     }
 
     @Test
-    void followUser_ValidUsers_ShouldFollowSuccessfully() {
+    void followUser_UnknownUser_ShouldThrowException() {
         // Arrange
-        User follower = testUser;
-        User following = new User();
-        following.setId(2L);
+        when(jdbcTemplate.update(startsWith("INSERT INTO user_followers"), any(Object[].class))).thenReturn(0);
+        when(userRepository.existsById(9L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> userService.followUser(1L, 9L));
+    }
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(follower));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(following));
-        when(userRepository.isFollowing(2L, 1L)).thenReturn(false);
+    @Test
+    void unfollowUser_ShouldDeleteEdgeOnce() {
+        // Arrange
+        when(jdbcTemplate.update(startsWith("DELETE FROM user_followers"), eq(2L), eq(1L))).thenReturn(1, 0);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(0L);
 
         // Act
-        userService.followUser(1L, 2L);
+        FollowResult first = userService.unfollowUser(1L, 2L);
+        FollowResult second = userService.unfollowUser(1L, 2L);
 
         // Assert
-        verify(userRepository).save(follower);
-        verify(userRepository).save(following);
+        assertFalse(first.following());
+        assertEquals(first, second);
+        verify(jdbcTemplate, times(1)).update(startsWith("UPDATE users SET"), eq(2L), eq(-1), eq(1L), eq(-1), eq(2L), eq(1L));
+        verify(feedService, times(1)).onUnfollow(1L, 2L);
+        verify(socialGraph, times(1)).recordUnfollow(1L, 2L);
+    }
+
+    @Test
+    void unfollowUser_NonExistingUser_ShouldThrowException() {
+        // Arrange
+        when(jdbcTemplate.update(startsWith("DELETE FROM user_followers"), eq(999L), eq(1L))).thenReturn(0);
+        when(userRepository.existsById(999L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> userService.unfollowUser(1L, 999L));
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+        verify(feedService, never()).onUnfollow(anyLong(), anyLong());
     }
 
     @Test
@@ -167,6 +291,166 @@ class UserServiceTest {
         assertEquals(expectedUsers.get(0).getName(), result.get(0).getName());
     }
 
+    @Test
+    void searchUsers_BackendReady_ShouldHydrateHitsInOrder() {
+        // Arrange
+        User other = new User();
+        other.setId(2L);
+        when(userSearchBackend.isReady()).thenReturn(true);
+        when(userSearchBackend.search("test", 0, 50)).thenReturn(new SearchHits(List.of(2L, 1L), 2));
+        when(userRepository.findAllByIdInOrder(List.of(2L, 1L))).thenReturn(List.of(other, testUser));
+
+        // Act
+        List<User> result = userService.searchUsers("test");
+
+        // Assert
+        assertEquals(List.of(other, testUser), result);
+        verify(userRepository, never()).searchUsers(any());
+    }
+
+    @Test
+    void getFollowers_GraphReady_ShouldLoadFollowersWithoutJoinQuery() {
+        // Arrange
+        User follower = new User();
+        follower.setId(3L);
+        when(socialGraph.isReady()).thenReturn(true);
+        when(socialGraph.followerIds(1L)).thenReturn(new long[] {3L});
+        when(userRepository.findAllByIdInOrder(List.of(3L))).thenReturn(List.of(follower));
+
+        // Act
+        List<User> result = userService.getFollowers(1L);
+
+        // Assert
+        assertEquals(List.of(follower), result);
+        verify(userRepository, never()).findFollowersByUserId(any());
+    }
+
+    @Test
+    void scrollFollowers_GraphReady_ShouldPageDownFromCursor() {
+        // Arrange
+        when(socialGraph.isReady()).thenReturn(true);
+        when(socialGraph.followerIds(1L)).thenReturn(new long[] {2L, 3L, 5L, 8L, 13L});
+        when(userRepository.findCardsInOrder(List.of(8L, 5L))).thenReturn(List.of(
+            new UserCard(8L, "Eight", null, 0), new UserCard(5L, "Five", null, 4)));
+
+        // Act
+        CursorPage<UserCard> page = userService.scrollFollowers(1L, new IdCursor(13L), 2);
+
+        // Assert
+        assertEquals(List.of(8L, 5L), page.content().stream().map(UserCard::id).toList());
+        assertTrue(page.hasNext());
+        assertEquals(new IdCursor(5L), IdCursor.decode(page.nextCursor()));
+        verify(userRepository, never()).findFollowersByUserId(any());
+    }
+
+    @Test
+    void scrollFollowers_GraphReady_LastPage_ShouldHaveNoCursor() {
+        // Arrange
+        when(socialGraph.isReady()).thenReturn(true);
+        when(socialGraph.followerIds(1L)).thenReturn(new long[] {2L, 3L, 5L});
+        when(userRepository.findCardsInOrder(List.of(3L, 2L))).thenReturn(List.of(
+            new UserCard(3L, "Three", null, 0), new UserCard(2L, "Two", null, 0)));
+
+        // Act
+        CursorPage<UserCard> page = userService.scrollFollowers(1L, new IdCursor(5L), 2);
+
+        // Assert
+        assertEquals(2, page.content().size());
+        assertFalse(page.hasNext());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void scrollFollowing_GraphNotReady_ShouldSeekInDatabase() {
+        // Arrange
+        when(socialGraph.isReady()).thenReturn(false);
+        when(userRepository.findFollowingCardsBefore(1L, Long.MAX_VALUE, PageRequest.of(0, 3))).thenReturn(List.of(
+            new UserCard(9L, "Nine", null, 0), new UserCard(7L, "Seven", null, 0), new UserCard(4L, "Four", null, 0)));
+
+        // Act
+        CursorPage<UserCard> page = userService.scrollFollowing(1L, IdCursor.START, 2);
+
+        // Assert
+        assertEquals(List.of(9L, 7L), page.content().stream().map(UserCard::id).toList());
+        assertEquals(new IdCursor(7L), IdCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void suggestFollows_ShouldHydrateRankedIdsAsCards() {
+        // Arrange
+        List<UserCard> cards = List.of(new UserCard(7L, "Seven", null, 12), new UserCard(4L, "Four", null, 3));
+        when(followSuggestionService.suggestions(1L, 5)).thenReturn(new long[] {7L, 4L});
+        when(userRepository.findCardsInOrder(List.of(7L, 4L))).thenReturn(cards);
+
+        // Act
+        List<UserCard> result = userService.suggestFollows(1L, 5);
+
+        // Assert
+        assertEquals(cards, result);
+    }
+
+    @Test
+    void suggestFollows_NothingRanked_ShouldNotQueryUsers() {
+        // Arrange
+        when(followSuggestionService.suggestions(1L, 5)).thenReturn(new long[0]);
+
+        // Act
+        List<UserCard> result = userService.suggestFollows(1L, 5);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void isFollowing_GraphReady_ShouldAnswerFromGraph() {
+        // Arrange
+        when(socialGraph.isReady()).thenReturn(true);
+        when(socialGraph.follows(1L, 2L)).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(userService.isFollowing(2L, 1L));
+        verify(userRepository, never()).isFollowing(any(), any());
+    }
+
+    @Test
+    void followedAmong_GraphReady_ShouldAnswerFromGraph() {
+        // Arrange
+        when(socialGraph.isReady()).thenReturn(true);
+        when(socialGraph.followedAmong(1L, List.of(2L, 3L, 4L))).thenReturn(Set.of(3L));
+
+        // Act
+        Set<Long> result = userService.followedAmong(1L, List.of(2L, 3L, 4L));
+
+        // Assert
+        assertEquals(Set.of(3L), result);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void followedAmong_GraphNotReady_ShouldUseOneQuery() {
+        // Arrange
+        when(socialGraph.isReady()).thenReturn(false);
+        when(userRepository.findFollowedIdsAmong(1L, List.of(2L, 3L))).thenReturn(List.of(2L));
+
+        // Act
+        Set<Long> result = userService.followedAmong(1L, List.of(2L, 3L));
+
+        // Assert
+        assertEquals(Set.of(2L), result);
+        verify(userRepository, never()).isFollowing(any(), any());
+    }
+
+    @Test
+    void followedAmong_TooManyIds_ShouldThrowException() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, CursorPage.MAX_SIZE + 1).boxed().toList();
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> userService.followedAmong(1L, ids));
+        verifyNoInteractions(socialGraph);
+    }
+
     @Test
     void isFollowing_ShouldReturnCorrectStatus() {
         // Arrange
@@ -178,4 +462,31 @@ class UserServiceTest {
         // Assert
         assertTrue(result);
     }
+
+    @Test
+    void reconcileFollowCounts_CountsBehindEdges_ShouldRecomputeFromEdges() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COALESCE(SUM(follower_count)"), eq(Long.class))).thenReturn(0L);
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_followers", Long.class)).thenReturn(3L);
+        when(jdbcTemplate.update(startsWith("UPDATE users u SET"))).thenReturn(4);
+
+        // Act
+        userService.reconcileFollowCounts();
+
+        // Assert
+        verify(jdbcTemplate).update(startsWith("UPDATE users u SET"));
+    }
+
+    @Test
+    void reconcileFollowCounts_CountsMatchEdges_ShouldNotUpdate() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COALESCE(SUM(follower_count)"), eq(Long.class))).thenReturn(6L);
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_followers", Long.class)).thenReturn(3L);
+
+        // Act
+        userService.reconcileFollowCounts();
+
+        // Assert
+        verify(jdbcTemplate, never()).update(anyString());
+    }
 }
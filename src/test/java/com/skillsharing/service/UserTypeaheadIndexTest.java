@@ -0,0 +1,128 @@
+package com.skillsharing.service;
+
+import com.skillsharing.config.AppProperties;
+import com.skillsharing.dto.UserCard;
+import com.skillsharing.event.UserChangedEvent;
+import com.skillsharing.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserTypeaheadIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private UserTypeaheadIndex userTypeaheadIndex;
+
+    @BeforeEach
+    void setUp() {
+        userTypeaheadIndex = new UserTypeaheadIndex(jdbcTemplate, new AppProperties());
+    }
+
+    @Test
+    void suggest_ShouldMatchAnyNameWordByPrefixMostFollowedFirst() {
+        // Arrange
+        addUser(1L, "John Smith", 3);
+        addUser(2L, "Joanna Jones", 10);
+        addUser(3L, "Mary Johnson", 5);
+        addUser(4L, "Peter Parker", 100);
+
+        // Act
+        List<UserCard> result = userTypeaheadIndex.suggest("jo", 10);
+
+        // Assert
+        assertEquals(List.of(2L, 3L, 1L), ids(result));
+        assertEquals(10, result.get(0).followerCount());
+    }
+
+    @Test
+    void suggest_SeveralWords_ShouldRequireEveryPrefix() {
+        // Arrange
+        addUser(1L, "John Smith", 0);
+        addUser(2L, "John Doe", 0);
+        addUser(3L, "Sam Smith", 0);
+
+        // Act
+        List<UserCard> result = userTypeaheadIndex.suggest("jo sm", 10);
+
+        // Assert
+        assertEquals(List.of(1L), ids(result));
+    }
+
+    @Test
+    void suggest_ShouldIgnoreCaseAndAccents() {
+        // Arrange
+        addUser(1L, "José Álvarez", 0);
+
+        // Act & Assert
+        assertEquals(List.of(1L), ids(userTypeaheadIndex.suggest("ALV", 10)));
+        assertEquals(List.of(1L), ids(userTypeaheadIndex.suggest("jose", 10)));
+    }
+
+    @Test
+    void onUserChanged_Rename_ShouldReplaceOldWords() {
+        // Arrange
+        addUser(1L, "Old Name", 0);
+        assertEquals(List.of(1L), ids(userTypeaheadIndex.suggest("old", 10)));
+
+        // Act
+        addUser(1L, "New Name", 0);
+
+        // Assert
+        assertTrue(userTypeaheadIndex.suggest("old", 10).isEmpty());
+        assertEquals(List.of(1L), ids(userTypeaheadIndex.suggest("new", 10)));
+        assertEquals(1, userTypeaheadIndex.indexedUsers());
+    }
+
+    @Test
+    void recordFollow_ShouldReorderCachedSuggestions() {
+        // Arrange
+        addUser(1L, "Anna", 1);
+        addUser(2L, "Annabel", 0);
+        assertEquals(List.of(1L, 2L), ids(userTypeaheadIndex.suggest("ann", 10)));
+
+        // Act
+        userTypeaheadIndex.recordFollow(2L);
+        userTypeaheadIndex.recordFollow(2L);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), ids(userTypeaheadIndex.suggest("ann", 10)));
+    }
+
+    @Test
+    void suggest_ShouldCapResultsAtLimit() {
+        // Arrange
+        for (long id = 1; id <= 20; id++) {
+            addUser(id, "Alex " + id, id);
+        }
+
+        // Act
+        List<UserCard> result = userTypeaheadIndex.suggest("al", 3);
+
+        // Assert
+        assertEquals(List.of(20L, 19L, 18L), ids(result));
+    }
+
+    private void addUser(Long id, String name, long followers) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        userTypeaheadIndex.onUserChanged(new UserChangedEvent(user));
+        for (int i = 0; i < followers; i++) {
+            userTypeaheadIndex.recordFollow(id);
+        }
+    }
+
+    private static List<Long> ids(List<UserCard> cards) {
+        return cards.stream().map(UserCard::id).toList();
+    }
+}